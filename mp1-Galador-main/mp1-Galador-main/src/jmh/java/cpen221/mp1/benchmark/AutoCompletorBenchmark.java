@@ -0,0 +1,82 @@
+package cpen221.mp1.benchmark;
+
+import cpen221.mp1.autocompletion.AutoCompletor;
+import cpen221.mp1.searchterm.SearchTerm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building an AutoCompletor, answering top-K queries and sorting
+ * search terms, over synthetic terms.
+ *
+ * @author W1nst0n03
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AutoCompletorBenchmark {
+
+    private static final int PREFIXES = 1024;
+
+    @Param({"10000", "100000", "1000000"})
+    public int terms;
+
+    @Param({"10"})
+    public int limit;
+
+    private SearchTerm[] searchTerms;
+    private String[] prefixes;
+    private AutoCompletor autoCompletor;
+    private int next = 0;
+
+    @Setup
+    public void setup() {
+        searchTerms = Corpus.searchTerms(terms);
+        prefixes = Corpus.prefixes(PREFIXES);
+        autoCompletor = new AutoCompletor(searchTerms);
+    }
+
+    @Benchmark
+    public SearchTerm[] topKMatches() {
+        next = (next + 1) % PREFIXES;
+        return autoCompletor.topKMatches(prefixes[next], limit);
+    }
+
+    @Benchmark
+    public SearchTerm[] fuzzyTopKMatches() {
+        next = (next + 1) % PREFIXES;
+        return autoCompletor.fuzzyTopKMatches(prefixes[next], 1, limit);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public AutoCompletor construct() {
+        return new AutoCompletor(searchTerms);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public SearchTerm[] sortByPrefixOrder() {
+        SearchTerm[] sorted = searchTerms.clone();
+        Arrays.sort(sorted, SearchTerm.byPrefixOrder());
+        return sorted;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public SearchTerm[] sortByWeightOrder() {
+        SearchTerm[] sorted = searchTerms.clone();
+        Arrays.sort(sorted, SearchTerm.byWeightOrder());
+        return sorted;
+    }
+
+}
@@ -0,0 +1,94 @@
+package cpen221.mp1.benchmark;
+
+import cpen221.mp1.searchterm.SearchTerm;
+
+import java.util.Random;
+
+/**
+ * Generates synthetic text and search terms for the benchmarks. The same
+ * size and seed always give the same data, so runs can be compared.
+ *
+ * @author W1nst0n03
+ */
+final class Corpus {
+
+    private static final String[] WORDS = {
+        "the", "class", "was", "very", "hard", "but", "she", "is", "a",
+        "great", "teacher", "and", "her", "lectures", "are", "clear", "he",
+        "never", "answers", "email", "tests", "were", "fair", "lots", "of",
+        "homework", "would", "take", "again", "boring", "helpful", "funny",
+        "tough", "grader", "really", "cares", "about", "students", "learn",
+        "nothing", "from", "textbook", "office", "hours", "easy", "A"
+    };
+    private static final long SEED = 221L;
+
+    private Corpus() {
+    }
+
+    /**
+     * Generates sentences of words, with words drawn mostly from the start
+     * of the word list so that common n-grams repeat as in real text.
+     *
+     * @param count the number of sentences
+     * @return the sentences
+     */
+    static String[] sentences(int count) {
+        Random random = new Random(SEED);
+        String[] sentences = new String[count];
+        for (int i = 0; i < count; i++) {
+            StringBuilder sentence = new StringBuilder();
+            int length = 5 + random.nextInt(20);
+            for (int w = 0; w < length; w++) {
+                if (w > 0) {
+                    sentence.append(' ');
+                }
+                sentence.append(word(random));
+            }
+            sentence.append(random.nextBoolean() ? "." : "!");
+            sentences[i] = sentence.toString();
+        }
+        return sentences;
+    }
+
+    /**
+     * Generates search terms whose queries are short phrases and whose
+     * weights are skewed, as with cities or query logs.
+     *
+     * @param count the number of terms
+     * @return the terms
+     */
+    static SearchTerm[] searchTerms(int count) {
+        Random random = new Random(SEED);
+        SearchTerm[] terms = new SearchTerm[count];
+        for (int i = 0; i < count; i++) {
+            String query = word(random) + " " + word(random) + " "
+                    + Integer.toString(i, Character.MAX_RADIX);
+            long weight = (long) (1_000_000 / (1 + random.nextInt(count)));
+            terms[i] = new SearchTerm(query, weight);
+        }
+        return terms;
+    }
+
+    /**
+     * Generates prefixes of words from the word list.
+     *
+     * @param count the number of prefixes
+     * @return the prefixes, between one and six characters long
+     */
+    static String[] prefixes(int count) {
+        Random random = new Random(SEED + 1);
+        String[] prefixes = new String[count];
+        for (int i = 0; i < count; i++) {
+            String word = word(random) + " " + word(random);
+            prefixes[i] = word.substring(0,
+                    1 + random.nextInt(Math.min(6, word.length())));
+        }
+        return prefixes;
+    }
+
+    private static String word(Random random) {
+        double skewed = random.nextDouble();
+        return WORDS[(int) (skewed * skewed * WORDS.length)];
+    }
+
+}
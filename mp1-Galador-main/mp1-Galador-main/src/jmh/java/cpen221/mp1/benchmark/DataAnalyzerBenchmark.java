@@ -0,0 +1,71 @@
+package cpen221.mp1.benchmark;
+
+import cpen221.mp1.ratemyprofessor.DataAnalyzer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.FileNotFoundException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures loading the bundled RateMyProfessor data and querying its
+ * histograms. Run from the project directory so the data files are found.
+ *
+ * @author W1nst0n03
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DataAnalyzerBenchmark {
+
+    /**
+     * The data file to load.
+     */
+    @State(Scope.Benchmark)
+    public static class Source {
+
+        @Param({"data/ratemyprofessor_data.txt"})
+        public String dataFile;
+
+    }
+
+    /**
+     * A loaded data set and a query to look up in it.
+     */
+    @State(Scope.Benchmark)
+    public static class Loaded {
+
+        @Param({"data/ratemyprofessor_data.txt"})
+        public String dataFile;
+
+        @Param({"good", "very hard", "would take again",
+            "the class was very hard"})
+        public String query;
+
+        private DataAnalyzer analyzer;
+
+        @Setup
+        public void setup() throws FileNotFoundException {
+            analyzer = new DataAnalyzer(dataFile);
+        }
+
+    }
+
+    @Benchmark
+    public Map<String, Long> getHistogram(Loaded loaded) {
+        return loaded.analyzer.getHistogram(loaded.query);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public DataAnalyzer load(Source source) throws FileNotFoundException {
+        return new DataAnalyzer(source.dataFile);
+    }
+
+}
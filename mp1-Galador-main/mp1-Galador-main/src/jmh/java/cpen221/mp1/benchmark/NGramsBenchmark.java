@@ -0,0 +1,53 @@
+package cpen221.mp1.benchmark;
+
+import cpen221.mp1.ngrams.NGrams;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures counting the n-grams of a synthetic corpus.
+ *
+ * @author W1nst0n03
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class NGramsBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int sentences;
+
+    private String[] text;
+
+    @Setup
+    public void setup() {
+        text = Corpus.sentences(sentences);
+    }
+
+    @Benchmark
+    public List<Map<String, Long>> construct() {
+        return new NGrams(text).getAllNGrams();
+    }
+
+    @Benchmark
+    public List<Map<String, Long>> constructTrigrams() {
+        return new NGrams(text, 3).getAllNGrams();
+    }
+
+    @Benchmark
+    public List<Map<String, Long>> constructParallel() {
+        return new NGrams(text, Integer.MAX_VALUE,
+                Runtime.getRuntime().availableProcessors()).getAllNGrams();
+    }
+
+}
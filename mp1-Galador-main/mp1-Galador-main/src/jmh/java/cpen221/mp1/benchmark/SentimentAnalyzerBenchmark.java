@@ -0,0 +1,82 @@
+package cpen221.mp1.benchmark;
+
+import cpen221.mp1.sentimentanalysis.SentimentAnalyzer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.FileNotFoundException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures predicting the ratings of synthetic reviews with a model
+ * trained on the bundled RateMyProfessor data. Run from the project
+ * directory so the data files are found.
+ *
+ * @author W1nst0n03
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SentimentAnalyzerBenchmark {
+
+    private static final int QUERIES = 1024;
+
+    /**
+     * A trained analyzer and the reviews to predict one at a time.
+     */
+    @State(Scope.Benchmark)
+    public static class Model {
+
+        @Param({"data/ratemyprofessor_data.txt"})
+        public String dataFile;
+
+        private SentimentAnalyzer analyzer;
+        private String[] queries;
+        private int next = 0;
+
+        @Setup
+        public void setup() throws FileNotFoundException {
+            analyzer = new SentimentAnalyzer(dataFile);
+            queries = Corpus.sentences(QUERIES);
+        }
+
+    }
+
+    /**
+     * The reviews to predict together.
+     */
+    @State(Scope.Benchmark)
+    public static class Batch {
+
+        @Param({"100", "10000"})
+        public int reviews;
+
+        private List<String> texts;
+
+        @Setup
+        public void setup() {
+            texts = Arrays.asList(Corpus.sentences(reviews));
+        }
+
+    }
+
+    @Benchmark
+    public float getPredictedRating(Model model) {
+        model.next = (model.next + 1) % QUERIES;
+        return model.analyzer.getPredictedRating(model.queries[model.next]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Float> predictAll(Model model, Batch batch) {
+        return model.analyzer.predictAll(batch.texts);
+    }
+
+}
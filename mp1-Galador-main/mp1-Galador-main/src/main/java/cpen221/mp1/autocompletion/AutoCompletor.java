@@ -2,20 +2,38 @@ package cpen221.mp1.autocompletion;
 
 import cpen221.mp1.searchterm.SearchTerm;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Represents an AutoCompletor.
+ * Matches are found through a sorted prefix index, so queries only look
+ * at the terms that match. The terms are stored packed into arrays, and
+ * SearchTerm objects are only created for the matches that are returned.
+ * Weights can be changed while the AutoCompletor is in use. Changes are
+ * collected and then published together as a new immutable snapshot of the
+ * terms and their index, so queries never wait for an update and always
+ * see one consistent snapshot.
  *
  * @author TangMartin, badudum, W1nsto0n03
  */
 public class AutoCompletor {
 
     private static final int DEFAULT_SEARCH_LIMIT = 10;
-    private List<SearchTerm> searchTerms = new ArrayList<>();
+    static final Comparator<SearchTerm> RESULT_ORDER =
+            SearchTerm.byWeightOrder().thenComparing(SearchTerm.byPrefixOrder());
+    private volatile Terms terms;
+    private final Map<String, Long> pendingIncrements =
+            new ConcurrentHashMap<>();
+    private volatile ResultCache cache;
 
     /**
      * Creates an AutoCompleter object to autocomplete words based on
@@ -26,9 +44,7 @@ public class AutoCompletor {
      *                    is not null and not empty
      */
     public AutoCompletor(SearchTerm[] searchTerms) {
-        this.searchTerms = Arrays.asList(searchTerms);
-        this.searchTerms.sort(SearchTerm.byPrefixOrder());
-        this.searchTerms.sort(SearchTerm.byWeightOrder());
+        this(searchTerms, null, searchTerms.length);
     }
 
     /**
@@ -42,14 +58,142 @@ public class AutoCompletor {
      *                    is not null and not empty;
      */
     public AutoCompletor(List<Map<String, Long>> searchTerms) {
-        for (Map<String, Long> gramMap: searchTerms) {
-            String[] keySet = gramMap.keySet().toArray(new String[0]);
-            for (String nGram: keySet) {
-                this.searchTerms.add(new SearchTerm(nGram, gramMap.get(nGram)));
+        this(toSearchTerms(searchTerms).toArray(new SearchTerm[0]));
+    }
+
+    /**
+     * Sorts the search terms by weight, then lexicographically, then by
+     * input index, and indexes them by prefix.
+     *
+     * @param searchTerms the search terms to be used as AutoCompletor data;
+     *                    is not null and is not modified
+     * @param inputIndexes the position of each search term in the input it
+     *                     was taken from, which breaks ties in the order of
+     *                     results; null to use the positions in searchTerms
+     * @param inputSize the size of that input; queries added later are
+     *                  ordered after every term of the input
+     */
+    AutoCompletor(SearchTerm[] searchTerms, int[] inputIndexes,
+                  int inputSize) {
+        int[] positions = new int[searchTerms.length];
+        Integer[] byRank = new Integer[searchTerms.length];
+        for (int i = 0; i < searchTerms.length; i++) {
+            positions[i] = inputIndexes == null ? i : inputIndexes[i];
+            byRank[i] = i;
+        }
+        Arrays.sort(byRank, (i, j) -> {
+            int byResult = RESULT_ORDER.compare(searchTerms[i], searchTerms[j]);
+            return byResult != 0 ? byResult
+                    : Integer.compare(positions[i], positions[j]);
+        });
+        SearchTerm[] ranked = new SearchTerm[searchTerms.length];
+        int[] order = new int[searchTerms.length];
+        for (int rank = 0; rank < ranked.length; rank++) {
+            ranked[rank] = searchTerms[byRank[rank]];
+            order[rank] = positions[byRank[rank]];
+        }
+        TermArena arena = new TermArena(ranked);
+        this.terms = new Terms(arena, new PrefixIndex(arena), order,
+                inputSize);
+    }
+
+    /**
+     * Adds to the weight of a term, or adds the term if there is none with
+     * this query. The change is not seen by queries until refresh is called.
+     * This may be called from any number of threads.
+     *
+     * @param query the query of the term; is not null
+     * @param amount the amount to add to the weight
+     */
+    public void incrementWeight(String query, long amount) {
+        pendingIncrements.merge(query, amount, Long::sum);
+    }
+
+    /**
+     * Publishes the weight increments made since the last refresh.
+     * Terms whose weight drops to zero or below are removed, and new terms
+     * are only added with a positive weight. Queries that are running keep
+     * using the terms they started with.
+     */
+    public synchronized void refresh() {
+        if (pendingIncrements.isEmpty()) {
+            return;
+        }
+        Terms current = terms;
+        int size = current.ranked.size();
+        long[] weights = new long[size];
+        boolean[] changed = new boolean[size];
+        Map<String, Long> added = new HashMap<>();
+        for (String query : pendingIncrements.keySet()) {
+            long amount = pendingIncrements.remove(query);
+            int rank = current.index.rankOf(query);
+            if (rank >= 0) {
+                weights[rank] += amount;
+                changed[rank] = true;
+            } else {
+                added.merge(query, amount, Long::sum);
             }
         }
-        this.searchTerms.sort(SearchTerm.byPrefixOrder());
-        this.searchTerms.sort(SearchTerm.byWeightOrder());
+        for (int rank = 0; rank < size; rank++) {
+            weights[rank] += current.ranked.weight(rank);
+        }
+        terms = current.update(weights, changed, added);
+    }
+
+    /**
+     * Publishes any pending increments, then multiplies every weight by a
+     * factor, rounding down. Terms whose weight drops to zero are removed.
+     *
+     * @param factor the factor to multiply weights by; is between 0 and 1
+     */
+    public synchronized void decayWeights(double factor) {
+        refresh();
+        Terms current = terms;
+        int size = current.ranked.size();
+        long[] weights = new long[size];
+        boolean[] changed = new boolean[size];
+        for (int rank = 0; rank < size; rank++) {
+            weights[rank] = (long) (current.ranked.weight(rank) * factor);
+            changed[rank] = true;
+        }
+        terms = current.update(weights, changed, Map.of());
+    }
+
+    /**
+     * Caches the results of topKMatches for recently used prefixes and
+     * limits. Cached results are no longer returned once weights are
+     * refreshed or decayed, since they belong to the terms they were found
+     * in. Calling this again replaces the cache with an empty one.
+     *
+     * @param capacity the largest number of results to keep; is positive
+     * @throws IllegalArgumentException if capacity is not positive
+     */
+    public void enableCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException(
+                    "capacity must be positive: " + capacity);
+        }
+        cache = new ResultCache(capacity);
+    }
+
+    /**
+     * Get the number of topKMatches calls answered from the cache.
+     *
+     * @return the number of cache hits, or 0 if caching is not enabled
+     */
+    public long getCacheHits() {
+        ResultCache current = cache;
+        return current == null ? 0 : current.getHits();
+    }
+
+    /**
+     * Get the number of topKMatches calls that were not in the cache.
+     *
+     * @return the number of cache misses, or 0 if caching is not enabled
+     */
+    public long getCacheMisses() {
+        ResultCache current = cache;
+        return current == null ? 0 : current.getMisses();
     }
 
     /**
@@ -59,13 +203,10 @@ public class AutoCompletor {
      * @return an SearchTerm array of all prefix matches
      */
     public SearchTerm[] allMatches(String prefix) {
-        List<SearchTerm> returnTerms = new ArrayList<>();
-        for (SearchTerm currentTerm: this.searchTerms) {
-            if (currentTerm.returnQuery().startsWith(prefix)) {
-                returnTerms.add(currentTerm);
-            }
-        }
-        return returnTerms.toArray(new SearchTerm[0]);
+        Terms current = terms;
+        PrefixIndex index = current.index;
+        return current.toSearchTerms(
+                index.ranks(index.start(prefix), index.end(prefix)));
     }
 
     /**
@@ -77,20 +218,53 @@ public class AutoCompletor {
      * @return an SearchTerm array of the top prefix matches up to a given limit
      */
     public SearchTerm[] topKMatches(String prefix, int limit) {
-        List<SearchTerm> returnTerms = new ArrayList<>();
-        int currentIndex = 0;
-        for (SearchTerm searchTerm : this.searchTerms) {
-            if (searchTerm.returnQuery().length() >= prefix.length()) {
-                if (searchTerm.returnQuery().startsWith(prefix)) {
-                    returnTerms.add(searchTerm);
-                    currentIndex++;
-                }
-                if (currentIndex == limit) {
-                    break;
-                }
+        if (limit <= 0) {
+            return new SearchTerm[0];
+        }
+        Terms current = terms;
+        ResultCache results = cache;
+        if (results != null) {
+            SearchTerm[] cached = results.get(current, prefix, limit);
+            if (cached != null) {
+                return cached.clone();
             }
         }
-        return returnTerms.toArray(new SearchTerm[0]);
+        PrefixIndex index = current.index;
+        SearchTerm[] matches = current.toSearchTerms(
+                index.topRanks(index.start(prefix), index.end(prefix), limit));
+        if (results != null) {
+            results.put(current, prefix, limit, matches.clone());
+        }
+        return matches;
+    }
+
+    /**
+     * Get the top-K matches for a prefix typed with up to a given number of
+     * mistakes. A term matches if it starts with a string that can be turned
+     * into the prefix by inserting, deleting or replacing at most maxEdits
+     * characters. Matches are ordered as in topKMatches.
+     *
+     * @param prefix string to be searched for
+     * @param maxEdits the largest number of edits allowed; is not negative
+     * @param limit integer K, limit to how many of the top SearchTerms to
+     *              return
+     * @return an SearchTerm array of the top fuzzy prefix matches up to a
+     *         given limit
+     * @throws IllegalArgumentException if maxEdits is negative
+     */
+    public SearchTerm[] fuzzyTopKMatches(String prefix, int maxEdits,
+                                         int limit) {
+        if (maxEdits < 0) {
+            throw new IllegalArgumentException(
+                    "maxEdits must not be negative: " + maxEdits);
+        }
+        if (limit <= 0) {
+            return new SearchTerm[0];
+        }
+        Terms current = terms;
+        PrefixIndex index = current.index;
+        return current.toSearchTerms(
+                index.topRanks(index.fuzzyRanges(prefix, maxEdits), limit));
     }
 
     /**
@@ -112,7 +286,332 @@ public class AutoCompletor {
      *         object's dataset
      */
     public int numberOfMatches(String prefix) {
-        return this.allMatches(prefix).length;
+        PrefixIndex index = terms.index;
+        return index.end(prefix) - index.start(prefix);
+    }
+
+    /**
+     * Get all the matches for a prefix with their input indexes, for
+     * merging with the matches of other AutoCompletors.
+     *
+     * @param prefix string to be searched for
+     * @return the matches, in the order of allMatches
+     */
+    List<Match> allIndexedMatches(String prefix) {
+        Terms current = terms;
+        PrefixIndex index = current.index;
+        return current.toMatches(
+                index.ranks(index.start(prefix), index.end(prefix)));
+    }
+
+    /**
+     * Get the top-K matches for a prefix with their input indexes, for
+     * merging with the matches of other AutoCompletors.
+     *
+     * @param prefix string to be searched for
+     * @param limit integer K, limit to how many of the top matches to return
+     * @return the matches, in the order of topKMatches
+     */
+    List<Match> topKIndexedMatches(String prefix, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        Terms current = terms;
+        PrefixIndex index = current.index;
+        return current.toMatches(
+                index.topRanks(index.start(prefix), index.end(prefix), limit));
+    }
+
+    /**
+     * Starts a session for a query that is typed one keystroke at a time.
+     *
+     * @return a new session, with nothing typed yet
+     */
+    public Session newSession() {
+        return new Session();
+    }
+
+    /**
+     * Creates a search term for every n-gram, weighted by its count.
+     *
+     * @param nGrams a List of Maps of n-grams in the format created by an
+     *               NGrams object
+     * @return the search terms of all the n-grams
+     */
+    private static List<SearchTerm> toSearchTerms(
+            List<Map<String, Long>> nGrams) {
+        List<SearchTerm> terms = new ArrayList<>();
+        for (Map<String, Long> gramMap: nGrams) {
+            for (Map.Entry<String, Long> nGram: gramMap.entrySet()) {
+                terms.add(new SearchTerm(nGram.getKey(), nGram.getValue()));
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Finds matches for a query as it is typed. The session remembers the
+     * range of matches of every prefix of the last query, so adding a
+     * character only narrows the last range and removing one goes back to
+     * the range, and top matches, already found for the shorter prefix.
+     * A session is meant to be used by one thread at a time; it starts over
+     * when the AutoCompletor's weights are refreshed.
+     */
+    public final class Session {
+
+        private final Deque<Frame> frames = new ArrayDeque<>();
+        private Terms snapshot;
+
+        private Session() {
+        }
+
+        /**
+         * Get the top-K matches for the text typed so far.
+         *
+         * @param prefix the text typed so far
+         * @param limit integer K, limit to how many of the top SearchTerms
+         *              to return
+         * @return an SearchTerm array of the top prefix matches up to a
+         *         given limit, the same as topKMatches(prefix, limit)
+         */
+        public SearchTerm[] topKMatches(String prefix, int limit) {
+            if (limit <= 0) {
+                return new SearchTerm[0];
+            }
+            Terms current = terms;
+            if (current != snapshot) {
+                snapshot = current;
+                frames.clear();
+                frames.push(new Frame("", 0, current.ranked.size()));
+            }
+            while (!prefix.startsWith(frames.peek().prefix)) {
+                frames.pop();
+            }
+            Frame frame = frames.peek();
+            for (int depth = frame.prefix.length(); depth < prefix.length();
+                 depth++) {
+                int[] range = current.index.narrow(frame.start, frame.end,
+                        depth, prefix.charAt(depth));
+                frame = new Frame(prefix.substring(0, depth + 1), range[0],
+                        range[1]);
+                frames.push(frame);
+            }
+            if (frame.top == null || frame.topLimit != limit) {
+                frame.top = current.toSearchTerms(
+                        current.index.topRanks(frame.start, frame.end, limit));
+                frame.topLimit = limit;
+            }
+            return frame.top.clone();
+        }
+
+    }
+
+    /**
+     * A matching search term and its input index. Terms added by
+     * incrementWeight get indexes after those of every term given at
+     * construction.
+     *
+     * @param term the search term
+     * @param inputIndex the position of the term in the input
+     */
+    record Match(SearchTerm term, int inputIndex) {
+
+        /**
+         * Orders matches as results, then by input index, then by query.
+         */
+        static final Comparator<Match> ORDER =
+                Comparator.comparing(Match::term, RESULT_ORDER)
+                        .thenComparingInt(Match::inputIndex)
+                        .thenComparing(match -> match.term().returnQuery());
+
+    }
+
+    /**
+     * The range of matches of one prefix typed in a session, and its top
+     * matches once they have been asked for.
+     */
+    private static final class Frame {
+
+        private final String prefix;
+        private final int start;
+        private final int end;
+        private SearchTerm[] top;
+        private int topLimit;
+
+        Frame(String prefix, int start, int end) {
+            this.prefix = prefix;
+            this.start = start;
+            this.end = end;
+        }
+
+    }
+
+    /**
+     * An immutable snapshot of the search terms in order of rank, with their
+     * prefix index and the input index of every rank.
+     */
+    private static final class Terms {
+
+        private final TermArena ranked;
+        private final PrefixIndex index;
+        private final int[] order;
+        private final int nextIndex;
+
+        Terms(TermArena ranked, PrefixIndex index, int[] order,
+              int nextIndex) {
+            this.ranked = ranked;
+            this.index = index;
+            this.order = order;
+            this.nextIndex = nextIndex;
+        }
+
+        /**
+         * Returns the search terms with the given ranks.
+         *
+         * @param ranks positions in ranked
+         * @return the search terms at those positions, in the same order
+         */
+        SearchTerm[] toSearchTerms(int[] ranks) {
+            SearchTerm[] matches = new SearchTerm[ranks.length];
+            for (int i = 0; i < ranks.length; i++) {
+                matches[i] = ranked.term(ranks[i]);
+            }
+            return matches;
+        }
+
+        /**
+         * Returns the search terms with the given ranks and their input
+         * indexes.
+         *
+         * @param ranks positions in ranked
+         * @return the matches at those positions, in the same order
+         */
+        List<Match> toMatches(int[] ranks) {
+            List<Match> matches = new ArrayList<>(ranks.length);
+            for (int rank : ranks) {
+                matches.add(new Match(ranked.term(rank), order[rank]));
+            }
+            return matches;
+        }
+
+        /**
+         * Creates a snapshot with some weights changed and some terms added.
+         * Only the changed and added terms are sorted; they are then merged
+         * with the unchanged terms, which are already in order, and the
+         * index is updated in the same way. Changed terms keep their input
+         * index, and added terms are given new ones in order of query.
+         *
+         * @param weights the new weight of each rank
+         * @param changed whether each rank's weight has changed
+         * @param added the weights of new queries
+         * @return the new snapshot
+         */
+        Terms update(long[] weights, boolean[] changed,
+                     Map<String, Long> added) {
+            int size = ranked.size();
+            List<SearchTerm> moved = new ArrayList<>();
+            List<Integer> movedFrom = new ArrayList<>();
+            List<Integer> movedIndex = new ArrayList<>();
+            for (int rank = 0; rank < size; rank++) {
+                if (changed[rank] && weights[rank] > 0) {
+                    moved.add(new SearchTerm(ranked.query(rank), weights[rank]));
+                    movedFrom.add(rank);
+                    movedIndex.add(this.order[rank]);
+                }
+            }
+            int next = nextIndex;
+            Map<String, Long> byQuery = new TreeMap<>(added);
+            for (Map.Entry<String, Long> term : byQuery.entrySet()) {
+                if (term.getValue() > 0) {
+                    moved.add(new SearchTerm(term.getKey(), term.getValue()));
+                    movedFrom.add(-1);
+                    movedIndex.add(next++);
+                }
+            }
+            Integer[] order = new Integer[moved.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (i, j) -> {
+                int byResult = RESULT_ORDER.compare(moved.get(i), moved.get(j));
+                return byResult != 0 ? byResult
+                        : Integer.compare(movedIndex.get(i), movedIndex.get(j));
+            });
+
+            int unchanged = 0;
+            long charCount = 0;
+            for (int rank = 0; rank < size; rank++) {
+                if (!changed[rank]) {
+                    unchanged++;
+                    charCount += ranked.length(rank);
+                }
+            }
+            for (SearchTerm term : moved) {
+                charCount += term.returnQuery().length();
+            }
+            if (charCount > Integer.MAX_VALUE) {
+                throw new IllegalStateException(
+                        "The queries are too long to store together: "
+                                + charCount);
+            }
+            TermArena merged = new TermArena(unchanged + order.length,
+                    (int) charCount);
+            int[] newRanks = new int[size];
+            Arrays.fill(newRanks, -1);
+            int[] addedRanks = new int[order.length];
+            int[] mergedOrder = new int[unchanged + order.length];
+            int addedCount = 0;
+            int i = 0;
+            int j = 0;
+            for (int out = 0; out < unchanged + order.length; out++) {
+                while (i < size && changed[i]) {
+                    i++;
+                }
+                if (j == order.length || (i < size && compare(i,
+                        moved.get(order[j]), movedIndex.get(order[j])) <= 0)) {
+                    merged.addFrom(ranked, i);
+                    mergedOrder[out] = this.order[i];
+                    newRanks[i] = out;
+                    i++;
+                } else {
+                    SearchTerm term = moved.get(order[j]);
+                    merged.add(term.returnQuery(), term.returnWeight());
+                    mergedOrder[out] = movedIndex.get(order[j]);
+                    int from = movedFrom.get(order[j]);
+                    if (from >= 0) {
+                        newRanks[from] = out;
+                    } else {
+                        addedRanks[addedCount++] = out;
+                    }
+                    j++;
+                }
+            }
+            PrefixIndex updated = index.update(merged, newRanks,
+                    Arrays.copyOf(addedRanks, addedCount));
+            return new Terms(merged, updated, mergedOrder, next);
+        }
+
+        /**
+         * Compares a stored term with another term in the order of results,
+         * then by input index, only creating a SearchTerm for the stored term
+         * if the weights tie.
+         *
+         * @param rank the rank of the stored term
+         * @param other the term to compare with
+         * @param otherIndex the input index of other
+         * @return a negative number, zero or a positive number as the stored
+         *         term comes before, with or after other
+         */
+        private int compare(int rank, SearchTerm other, int otherIndex) {
+            int byWeight = Long.compare(other.returnWeight(), ranked.weight(rank));
+            if (byWeight != 0) {
+                return byWeight;
+            }
+            int byResult = RESULT_ORDER.compare(ranked.term(rank), other);
+            return byResult != 0 ? byResult
+                    : Integer.compare(order[rank], otherIndex);
+        }
+
     }
 
 }
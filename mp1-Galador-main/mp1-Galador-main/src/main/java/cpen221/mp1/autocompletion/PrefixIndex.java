@@ -0,0 +1,379 @@
+package cpen221.mp1.autocompletion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * A sorted index of the queries of the terms in an arena.
+ * All the queries that start with a prefix are next to each other in
+ * lexicographic order, so the matches of a prefix are found with two
+ * binary searches. Each entry also holds the term's rank, its position
+ * in the AutoCompletor's order of results, and a segment tree over the
+ * ranks finds the best ranked entry of any range in O(log n).
+ * The sorted queries also act as a trie: the queries under a trie node
+ * are the range of queries that start with the node's string.
+ *
+ * @author TangMartin, badudum, W1nsto0n03
+ */
+final class PrefixIndex {
+
+    private final TermArena terms;
+    private final int[] ranks;
+    private final int[] bestInRange;
+
+    /**
+     * Indexes the queries of the terms in an arena.
+     *
+     * @param terms the terms, in order of rank; is not null
+     */
+    PrefixIndex(TermArena terms) {
+        Integer[] order = new Integer[terms.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, terms::compareQueries);
+        this.terms = terms;
+        this.ranks = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            ranks[i] = order[i];
+        }
+        this.bestInRange = buildTree(ranks);
+    }
+
+    /**
+     * Creates an index from ranks whose queries are already sorted.
+     *
+     * @param terms the terms, in order of rank
+     * @param ranks the ranks of the terms, in lexicographic order of query
+     */
+    private PrefixIndex(TermArena terms, int[] ranks) {
+        this.terms = terms;
+        this.ranks = ranks;
+        this.bestInRange = buildTree(ranks);
+    }
+
+    /**
+     * Creates a new index after the terms have been re-ranked, without
+     * sorting the queries that were already indexed.
+     *
+     * @param updated the re-ranked terms
+     * @param newRanks the new rank of each current rank, or -1 if the term
+     *                 has been removed
+     * @param addedRanks the ranks in updated of the terms that were not
+     *                   indexed before
+     * @return an index of the kept and added terms
+     */
+    PrefixIndex update(TermArena updated, int[] newRanks, int[] addedRanks) {
+        Integer[] added = new Integer[addedRanks.length];
+        for (int i = 0; i < added.length; i++) {
+            added[i] = addedRanks[i];
+        }
+        Arrays.sort(added, updated::compareQueries);
+        int[] mergedRanks = new int[updated.size()];
+        int i = 0;
+        int j = 0;
+        for (int out = 0; out < mergedRanks.length; out++) {
+            while (i < ranks.length && newRanks[ranks[i]] < 0) {
+                i++;
+            }
+            if (j == added.length || (i < ranks.length
+                    && updated.compareQueries(newRanks[ranks[i]], added[j]) <= 0)) {
+                mergedRanks[out] = newRanks[ranks[i]];
+                i++;
+            } else {
+                mergedRanks[out] = added[j];
+                j++;
+            }
+        }
+        return new PrefixIndex(updated, mergedRanks);
+    }
+
+    /**
+     * Narrows the range of queries that start with a prefix to those that
+     * also have a given character just after it.
+     *
+     * @param start the start of the prefix's range
+     * @param end the end of the prefix's range
+     * @param depth the length of the prefix
+     * @param c the character that follows the prefix
+     * @return the range of queries that start with the prefix followed by c,
+     *         as {start, end}; it is empty if there are none
+     */
+    int[] narrow(int start, int end, int depth, char c) {
+        int low = start;
+        while (low < end && terms.length(ranks[low]) == depth) {
+            low++;
+        }
+        int first = firstAbove(low, end, depth, c - 1);
+        return new int[] {first, firstAbove(first, end, depth, c)};
+    }
+
+    /**
+     * Returns the rank of a query.
+     *
+     * @param query the query to look up
+     * @return the rank of a term with exactly this query, or -1 if there is
+     *         none
+     */
+    int rankOf(String query) {
+        int i = start(query);
+        return i < ranks.length && terms.length(ranks[i]) == query.length()
+                && terms.comparePrefix(ranks[i], query) == 0 ? ranks[i] : -1;
+    }
+
+    /**
+     * Returns the first index whose query starts with a prefix, or would if
+     * there were one.
+     *
+     * @param prefix the prefix to search for
+     * @return the start of the range of queries that start with prefix
+     */
+    int start(String prefix) {
+        return search(prefix, 0);
+    }
+
+    /**
+     * Returns the index just past the last query that starts with a prefix.
+     *
+     * @param prefix the prefix to search for
+     * @return the end of the range of queries that start with prefix
+     */
+    int end(String prefix) {
+        return search(prefix, 1);
+    }
+
+    /**
+     * Returns the ranks of the queries in a range, in increasing order.
+     *
+     * @param start the start of the range, inclusive
+     * @param end the end of the range, exclusive
+     * @return the sorted ranks of the range
+     */
+    int[] ranks(int start, int end) {
+        int[] inRange = Arrays.copyOfRange(ranks, start, end);
+        Arrays.sort(inRange);
+        return inRange;
+    }
+
+    /**
+     * Returns the smallest ranks in a range, in increasing order.
+     * The range is split around its best entry, and a queue of the pieces
+     * ordered by their own best entries yields the next rank each time, so
+     * this takes O(limit log n) however large the range is.
+     *
+     * @param start the start of the range, inclusive
+     * @param end the end of the range, exclusive
+     * @param limit the largest number of ranks to return
+     * @return the limit smallest ranks of the range, sorted
+     */
+    int[] topRanks(int start, int end, int limit) {
+        return topRanks(List.of(new int[] {start, end}), limit);
+    }
+
+    /**
+     * Returns the smallest ranks in a set of disjoint ranges, in increasing
+     * order.
+     *
+     * @param ranges the ranges, as {start, end}
+     * @param limit the largest number of ranks to return
+     * @return the limit smallest ranks of the ranges, sorted
+     */
+    int[] topRanks(List<int[]> ranges, int limit) {
+        PriorityQueue<int[]> pieces =
+                new PriorityQueue<>(Comparator.comparingInt(piece -> piece[0]));
+        int size = 0;
+        for (int[] range : ranges) {
+            addPiece(pieces, range[0], range[1]);
+            size += range[1] - range[0];
+        }
+        int[] top = new int[Math.min(limit, size)];
+        for (int i = 0; i < top.length; i++) {
+            int[] piece = pieces.poll();
+            top[i] = piece[0];
+            addPiece(pieces, piece[2], piece[1]);
+            addPiece(pieces, piece[1] + 1, piece[3]);
+        }
+        return top;
+    }
+
+    /**
+     * Finds the queries that start with a string within a number of edits
+     * of a prefix, by walking a Levenshtein automaton for the prefix over
+     * the trie of queries. A branch is given up as soon as every state of
+     * the automaton is more than maxEdits away, and a node is matched
+     * whole as soon as its string is close enough, so only the trie nodes
+     * close to the prefix are visited.
+     *
+     * @param prefix the prefix to search for
+     * @param maxEdits the largest number of inserted, deleted or replaced
+     *                 characters allowed; is not negative
+     * @return the disjoint ranges of matching queries, as {start, end}
+     */
+    List<int[]> fuzzyRanges(String prefix, int maxEdits) {
+        int[] row = new int[prefix.length() + 1];
+        for (int j = 0; j < row.length; j++) {
+            row[j] = j;
+        }
+        List<int[]> ranges = new ArrayList<>();
+        walk(prefix, maxEdits, 0, ranks.length, 0, row, ranges);
+        return ranges;
+    }
+
+    /**
+     * Visits a trie node and those of its children that can still match.
+     *
+     * @param prefix the prefix to search for
+     * @param maxEdits the largest number of edits allowed
+     * @param start the start of the node's range of queries
+     * @param end the end of the node's range of queries
+     * @param depth the length of the node's string
+     * @param row the edit distance from the node's string to each prefix
+     *            of prefix
+     * @param ranges the list to add matching ranges to
+     */
+    private void walk(String prefix, int maxEdits, int start, int end,
+                      int depth, int[] row, List<int[]> ranges) {
+        if (row[prefix.length()] <= maxEdits) {
+            ranges.add(new int[] {start, end});
+            return;
+        }
+        int child = start;
+        while (child < end && terms.length(ranks[child]) == depth) {
+            child++;
+        }
+        while (child < end) {
+            char c = terms.charAt(ranks[child], depth);
+            int childEnd = firstAbove(child + 1, end, depth, c);
+            int[] next = new int[row.length];
+            next[0] = row[0] + 1;
+            int best = next[0];
+            for (int j = 1; j < row.length; j++) {
+                int replace = row[j - 1] + (prefix.charAt(j - 1) == c ? 0 : 1);
+                next[j] = Math.min(replace, Math.min(row[j], next[j - 1]) + 1);
+                best = Math.min(best, next[j]);
+            }
+            if (best <= maxEdits) {
+                walk(prefix, maxEdits, child, childEnd, depth + 1, next, ranges);
+            }
+            child = childEnd;
+        }
+    }
+
+    /**
+     * Finds the first query whose character at a position is greater than
+     * a bound, in a range whose queries all share the characters before the
+     * position and are all longer than it.
+     *
+     * @param start the start of the range to search
+     * @param end the end of the range to search
+     * @param depth the position of the character
+     * @param c the bound
+     * @return the first index in the range whose query has a character
+     *         greater than c at depth, or end
+     */
+    private int firstAbove(int start, int end, int depth, int c) {
+        int low = start;
+        int high = end;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (terms.charAt(ranks[middle], depth) <= c) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Adds a non-empty range to a queue as {best rank, index of best rank,
+     * start, end}.
+     *
+     * @param pieces the queue to add to
+     * @param start the start of the range, inclusive
+     * @param end the end of the range, exclusive
+     */
+    private void addPiece(PriorityQueue<int[]> pieces, int start, int end) {
+        if (start < end) {
+            int best = bestIndex(start, end);
+            pieces.add(new int[] {ranks[best], best, start, end});
+        }
+    }
+
+    /**
+     * Returns the index of the smallest rank in a non-empty range.
+     *
+     * @param start the start of the range, inclusive
+     * @param end the end of the range, exclusive
+     * @return the index in the range with the smallest rank
+     */
+    private int bestIndex(int start, int end) {
+        int best = start;
+        int low = start + ranks.length;
+        int high = end + ranks.length;
+        while (low < high) {
+            if ((low & 1) == 1) {
+                best = better(best, bestInRange[low++]);
+            }
+            if ((high & 1) == 1) {
+                best = better(best, bestInRange[--high]);
+            }
+            low >>= 1;
+            high >>= 1;
+        }
+        return best;
+    }
+
+    private int better(int index1, int index2) {
+        return better(ranks, index1, index2);
+    }
+
+    private static int better(int[] ranks, int index1, int index2) {
+        return ranks[index1] <= ranks[index2] ? index1 : index2;
+    }
+
+    /**
+     * Builds a segment tree whose node i holds the index of the smallest
+     * rank under it, with the leaves at ranks.length to 2 * ranks.length.
+     *
+     * @param ranks the ranks to build the tree over
+     * @return the tree
+     */
+    private static int[] buildTree(int[] ranks) {
+        int[] tree = new int[2 * ranks.length];
+        for (int i = 0; i < ranks.length; i++) {
+            tree[ranks.length + i] = i;
+        }
+        for (int node = ranks.length - 1; node > 0; node--) {
+            tree[node] = better(ranks, tree[2 * node], tree[2 * node + 1]);
+        }
+        return tree;
+    }
+
+    /**
+     * Finds the first index whose query, cut to the length of the prefix,
+     * compares to the prefix at least as large as a bound.
+     *
+     * @param prefix the prefix to search for
+     * @param bound 0 to find the first match, 1 to find the first query
+     *              after the matches
+     * @return the index found
+     */
+    private int search(String prefix, int bound) {
+        int low = 0;
+        int high = ranks.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (terms.comparePrefix(ranks[middle], prefix) < bound) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+}
@@ -0,0 +1,131 @@
+package cpen221.mp1.autocompletion;
+
+import cpen221.mp1.searchterm.SearchTerm;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of top-K results that can be read by many threads
+ * without locking. Results are kept in a ConcurrentHashMap and evicted
+ * with the CLOCK approximation of least recently used: each result has a
+ * slot on a ring and a bit set when it is read, and a new result takes the
+ * first slot past the hand whose result has not been read since the hand
+ * last passed it.
+ * Each result remembers the snapshot of terms it was found in, and is only
+ * returned for that same snapshot, so results found before the weights
+ * changed are never served after. Those results are never read again and
+ * are the first to be evicted.
+ *
+ * @author TangMartin, badudum, W1nsto0n03
+ */
+final class ResultCache {
+
+    private final ConcurrentHashMap<Key, Entry> entries;
+    private final AtomicReferenceArray<Key> ring;
+    private final AtomicInteger hand = new AtomicInteger();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param capacity the largest number of results to keep; is positive
+     */
+    ResultCache(int capacity) {
+        this.entries = new ConcurrentHashMap<>();
+        this.ring = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Looks up a result and counts a hit or a miss.
+     *
+     * @param snapshot the snapshot of terms being searched
+     * @param prefix the prefix searched for
+     * @param limit the number of results asked for
+     * @return the cached result, or null if there is none for this snapshot
+     */
+    SearchTerm[] get(Object snapshot, String prefix, int limit) {
+        Entry entry = entries.get(new Key(prefix, limit));
+        if (entry == null || entry.snapshot != snapshot) {
+            misses.increment();
+            return null;
+        }
+        if (!entry.referenced) {
+            entry.referenced = true;
+        }
+        hits.increment();
+        return entry.result;
+    }
+
+    /**
+     * Adds a result to the cache. When several threads add results at
+     * once, the cache may briefly hold more than its capacity.
+     *
+     * @param snapshot the snapshot of terms the result was found in
+     * @param prefix the prefix searched for
+     * @param limit the number of results asked for
+     * @param result the result; is not changed afterwards
+     */
+    void put(Object snapshot, String prefix, int limit, SearchTerm[] result) {
+        Key key = new Key(prefix, limit);
+        Entry entry = new Entry(snapshot, result);
+        Entry old = entries.get(key);
+        if (old != null) {
+            entries.replace(key, old, entry);
+            return;
+        }
+        if (entries.putIfAbsent(key, entry) != null) {
+            return;
+        }
+        Key evicted = ring.getAndSet(freeSlot(), key);
+        if (evicted != null) {
+            entries.remove(evicted);
+        }
+    }
+
+    long getHits() {
+        return hits.sum();
+    }
+
+    long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Moves the hand to the next slot whose result can be evicted,
+     * clearing the bits of the read results it passes.
+     *
+     * @return the slot
+     */
+    private int freeSlot() {
+        while (true) {
+            int slot = Math.floorMod(hand.getAndIncrement(), ring.length());
+            Key key = ring.get(slot);
+            Entry entry = key == null ? null : entries.get(key);
+            if (entry == null || !entry.referenced) {
+                return slot;
+            }
+            entry.referenced = false;
+        }
+    }
+
+    private record Key(String prefix, int limit) {
+    }
+
+    private static final class Entry {
+
+        private final Object snapshot;
+        private final SearchTerm[] result;
+        private volatile boolean referenced = false;
+
+        Entry(Object snapshot, SearchTerm[] result) {
+            this.snapshot = snapshot;
+            this.result = result;
+        }
+
+    }
+
+}
@@ -0,0 +1,174 @@
+package cpen221.mp1.autocompletion;
+
+import cpen221.mp1.searchterm.SearchTerm;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Represents an AutoCompletor split into shards by the first character of
+ * each query. The shards are built in parallel and each can be searched
+ * on its own: a non-empty prefix only searches the shard of its first
+ * character, and an empty prefix merges the results of every shard.
+ * Terms that AutoCompletor ranks equally are merged in the order they
+ * were given, as an unsharded AutoCompletor returns them.
+ *
+ * @author TangMartin, badudum, W1nsto0n03
+ */
+public class ShardedAutoCompletor {
+
+    private static final int DEFAULT_SEARCH_LIMIT = 10;
+    private static final int EMPTY_QUERY = -1;
+    private final Map<Integer, AutoCompletor> shards;
+
+    /**
+     * Creates a ShardedAutoCompletor object to autocomplete words based on
+     * a provided dataset.
+     *
+     * @param searchTerms an array of SearchTerm to be used
+     *                    as AutoCompletor data;
+     *                    is not null and not empty
+     */
+    public ShardedAutoCompletor(SearchTerm[] searchTerms) {
+        Map<Integer, List<Integer>> groups = new HashMap<>();
+        for (int i = 0; i < searchTerms.length; i++) {
+            groups.computeIfAbsent(shardOf(searchTerms[i].returnQuery()),
+                    k -> new ArrayList<>()).add(i);
+        }
+        this.shards = groups.entrySet().parallelStream()
+                .collect(Collectors.toMap(Map.Entry::getKey,
+                        group -> shard(searchTerms, group.getValue())));
+    }
+
+    /**
+     * Get the shard that holds the terms starting with a character.
+     *
+     * @param first the first character of the queries
+     * @return the AutoCompletor of those terms, or null if there are none
+     */
+    public AutoCompletor getShard(char first) {
+        return shards.get((int) first);
+    }
+
+    /**
+     * Get all the matches for a given prefix.
+     *
+     * @param prefix string to be searched for
+     * @return an SearchTerm array of all prefix matches
+     */
+    public SearchTerm[] allMatches(String prefix) {
+        if (!prefix.isEmpty()) {
+            AutoCompletor shard = shards.get(shardOf(prefix));
+            return shard == null ? new SearchTerm[0] : shard.allMatches(prefix);
+        }
+        List<AutoCompletor.Match> matches = new ArrayList<>();
+        for (AutoCompletor shard : shards.values()) {
+            matches.addAll(shard.allIndexedMatches(prefix));
+        }
+        return merge(matches, matches.size());
+    }
+
+    /**
+     * Get the top-K matches for a give prefix up to a given integer limit, K.
+     *
+     * @param prefix string to be searched for
+     * @param limit integer K, limit to how many of the top SearchTerms to
+     *              return
+     * @return an SearchTerm array of the top prefix matches up to a given limit
+     */
+    public SearchTerm[] topKMatches(String prefix, int limit) {
+        if (!prefix.isEmpty()) {
+            AutoCompletor shard = shards.get(shardOf(prefix));
+            return shard == null ? new SearchTerm[0]
+                    : shard.topKMatches(prefix, limit);
+        }
+        List<AutoCompletor.Match> matches = new ArrayList<>();
+        for (AutoCompletor shard : shards.values()) {
+            matches.addAll(shard.topKIndexedMatches(prefix, limit));
+        }
+        return merge(matches, limit);
+    }
+
+    /**
+     * Get the top matches for a give prefix up to the DEFAULT_SEARCH_LIMIT.
+     *
+     * @param prefix string to be searched for
+     * @return an SearchTerm array of the top prefix matches up to the
+     *         DEFAULT_SEARCH_LIMIT
+     */
+    public SearchTerm[] topKMatches(String prefix) {
+        return topKMatches(prefix, DEFAULT_SEARCH_LIMIT);
+    }
+
+    /**
+     * Get the total number of matches to a prefix.
+     *
+     * @param prefix string to be searched for
+     * @return an integer representing the total number of matches within the
+     *         object's dataset
+     */
+    public int numberOfMatches(String prefix) {
+        if (!prefix.isEmpty()) {
+            AutoCompletor shard = shards.get(shardOf(prefix));
+            return shard == null ? 0 : shard.numberOfMatches(prefix);
+        }
+        int count = 0;
+        for (AutoCompletor shard : shards.values()) {
+            count += shard.numberOfMatches(prefix);
+        }
+        return count;
+    }
+
+    /**
+     * Builds the shard of some of the search terms, remembering their
+     * positions in the input so ties are merged in input order.
+     *
+     * @param searchTerms all the search terms
+     * @param members the positions of the shard's terms in searchTerms
+     * @return the AutoCompletor of the shard's terms
+     */
+    private static AutoCompletor shard(SearchTerm[] searchTerms,
+                                       List<Integer> members) {
+        SearchTerm[] terms = new SearchTerm[members.size()];
+        int[] inputIndexes = new int[members.size()];
+        for (int i = 0; i < terms.length; i++) {
+            inputIndexes[i] = members.get(i);
+            terms[i] = searchTerms[inputIndexes[i]];
+        }
+        return new AutoCompletor(terms, inputIndexes, searchTerms.length);
+    }
+
+    /**
+     * Sorts the matches of several shards into one list of results.
+     *
+     * @param matches the matches of the shards
+     * @param limit the largest number of results to return
+     * @return the first limit matches, in order of results and then of
+     *         input index
+     */
+    private static SearchTerm[] merge(List<AutoCompletor.Match> matches,
+                                      int limit) {
+        matches.sort(AutoCompletor.Match.ORDER);
+        int count = Math.min(Math.max(limit, 0), matches.size());
+        SearchTerm[] results = new SearchTerm[count];
+        for (int i = 0; i < count; i++) {
+            results[i] = matches.get(i).term();
+        }
+        return results;
+    }
+
+    /**
+     * Returns the key of the shard of a query or prefix.
+     *
+     * @param query the query
+     * @return the first character of the query, or EMPTY_QUERY if the query
+     *         is empty
+     */
+    private static int shardOf(String query) {
+        return query.isEmpty() ? EMPTY_QUERY : query.charAt(0);
+    }
+
+}
@@ -0,0 +1,170 @@
+package cpen221.mp1.autocompletion;
+
+import cpen221.mp1.searchterm.SearchTerm;
+
+/**
+ * Stores search terms in order of rank without a SearchTerm or String
+ * object per term: the characters of every query are packed into one
+ * array, with an array of where each query starts and an array of
+ * weights. SearchTerm objects are only created for results.
+ * An arena is filled once by its creator and then only read.
+ *
+ * @author TangMartin, badudum, W1nsto0n03
+ */
+final class TermArena {
+
+    private final char[] chars;
+    private final int[] offsets;
+    private final long[] weights;
+    private int size = 0;
+
+    /**
+     * Creates an empty arena.
+     *
+     * @param capacity the number of terms that will be added
+     * @param charCapacity the total length of the queries that will be added
+     */
+    TermArena(int capacity, int charCapacity) {
+        this.chars = new char[charCapacity];
+        this.offsets = new int[capacity + 1];
+        this.weights = new long[capacity];
+    }
+
+    /**
+     * Packs a list of search terms.
+     *
+     * @param ranked the search terms, in order of rank; is not null
+     */
+    TermArena(SearchTerm[] ranked) {
+        this(ranked.length, totalLength(ranked));
+        for (SearchTerm term : ranked) {
+            add(term.returnQuery(), term.returnWeight());
+        }
+    }
+
+    /**
+     * Adds a term after the last one added.
+     *
+     * @param query the query of the term
+     * @param weight the weight of the term
+     */
+    void add(String query, long weight) {
+        int start = offsets[size];
+        query.getChars(0, query.length(), chars, start);
+        weights[size] = weight;
+        offsets[++size] = start + query.length();
+    }
+
+    /**
+     * Adds a term of another arena after the last one added.
+     *
+     * @param other the arena to copy from
+     * @param rank the rank of the term in other
+     */
+    void addFrom(TermArena other, int rank) {
+        int start = offsets[size];
+        int length = other.length(rank);
+        System.arraycopy(other.chars, other.offsets[rank], chars, start, length);
+        weights[size] = other.weights[rank];
+        offsets[++size] = start + length;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the total length of the queries.
+     *
+     * @return the number of chars used by the queries
+     */
+    int charCount() {
+        return offsets[size];
+    }
+
+    long weight(int rank) {
+        return weights[rank];
+    }
+
+    int length(int rank) {
+        return offsets[rank + 1] - offsets[rank];
+    }
+
+    char charAt(int rank, int index) {
+        return chars[offsets[rank] + index];
+    }
+
+    String query(int rank) {
+        return new String(chars, offsets[rank], length(rank));
+    }
+
+    /**
+     * Creates a SearchTerm for a term.
+     *
+     * @param rank the rank of the term
+     * @return a new SearchTerm equal to the term that was added
+     */
+    SearchTerm term(int rank) {
+        return new SearchTerm(query(rank), weights[rank]);
+    }
+
+    /**
+     * Compares the queries of two terms lexicographically.
+     *
+     * @param rank1 the rank of the first term
+     * @param rank2 the rank of the second term
+     * @return a negative number, zero or a positive number as the first
+     *         query is less than, equal to or greater than the second
+     */
+    int compareQueries(int rank1, int rank2) {
+        int start1 = offsets[rank1];
+        int start2 = offsets[rank2];
+        int length1 = length(rank1);
+        int length2 = length(rank2);
+        int length = Math.min(length1, length2);
+        for (int i = 0; i < length; i++) {
+            char a = chars[start1 + i];
+            char b = chars[start2 + i];
+            if (a != b) {
+                return a - b;
+            }
+        }
+        return length1 - length2;
+    }
+
+    /**
+     * Compares the start of a query with a prefix.
+     *
+     * @param rank the rank of the term whose query is compared
+     * @param prefix the prefix to compare with
+     * @return a negative number, zero or a positive number as the first
+     *         prefix.length() characters of the query are less than, equal
+     *         to or greater than prefix
+     */
+    int comparePrefix(int rank, String prefix) {
+        int start = offsets[rank];
+        int queryLength = length(rank);
+        int length = Math.min(queryLength, prefix.length());
+        for (int i = 0; i < length; i++) {
+            char a = chars[start + i];
+            char b = prefix.charAt(i);
+            if (a != b) {
+                return a - b;
+            }
+        }
+        return queryLength < prefix.length() ? -1 : 0;
+    }
+
+    private static int totalLength(SearchTerm[] terms) {
+        long total = 0;
+        for (SearchTerm term : terms) {
+            total += term.returnQuery().length();
+        }
+        if (total > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "The queries are too long to store together: " + total);
+        }
+        return (int) total;
+    }
+
+}
@@ -181,6 +181,7 @@ public class AutoCompletorGUI extends JFrame {
 
         private final JTextField searchText;      // the search bar
         private AutoCompletor auto;                // the AutoCompletor object
+        private AutoCompletor.Session session;     // the query being typed
         private String[] results = new String[k]; // an array of matches
         //// private JList<String> suggestions;   // a list of autocomplete matches (Java 7)
         private JList suggestions;                // a list of autocomplete matches (Java 6)
@@ -216,6 +217,7 @@ public class AutoCompletorGUI extends JFrame {
 
             // Create the autocomplete object
             auto = new AutoCompletor(searchTerms);
+            session = auto.newSession();
 
             GroupLayout layout = new GroupLayout(this);
             this.setLayout(layout);
@@ -539,10 +541,11 @@ public class AutoCompletorGUI extends JFrame {
             else {
                 int textLen = text.length();
 
-                // get all matching terms
-                SearchTerm[] allResults = auto.allMatches(text);
+                // get the top matching terms, narrowing the matches of the
+                // text typed before this keystroke
+                SearchTerm[] allResults = session.topKMatches(text, k);
                 if (allResults == null) {
-                    throw new NullPointerException("allMatches() is null");
+                    throw new NullPointerException("topKMatches() is null");
                 }
 
                 results = new String[Math.min(k, allResults.length)];
@@ -553,12 +556,12 @@ public class AutoCompletorGUI extends JFrame {
                         // and weight from toString()
                         String next = allResults[i].toString();
                         if (allResults[i] == null) {
-                            throw new NullPointerException("allMatches() "
+                            throw new NullPointerException("topKMatches() "
                                     + "returned an array with a null entry");
                         }
                         int tab = next.indexOf('\t');
                         if (tab < 0) {
-                            throw new RuntimeException("allMatches() returned"
+                            throw new RuntimeException("topKMatches() returned"
                                     + " an array with an entry without a tab:"
                                     + " '" + next + "'");
                         }
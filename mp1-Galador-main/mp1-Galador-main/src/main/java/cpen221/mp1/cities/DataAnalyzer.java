@@ -1,10 +1,16 @@
 package cpen221.mp1.cities;
 
+import cpen221.mp1.autocompletion.ShardedAutoCompletor;
 import cpen221.mp1.autocompletion.gui.AutoCompletorGUI;
-import cpen221.mp1.autocompletion.gui.In;
 import cpen221.mp1.searchterm.SearchTerm;
 
 import javax.swing.*;
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -12,28 +18,57 @@ public class DataAnalyzer {
 
     private static final String CITIES_DATA = "data/cities.txt";
     private SearchTerm[] searchTerms;
+    private ShardedAutoCompletor autoCompletor;
 
+    /**
+     * Reads a file of "weight\tquery" lines, one line at a time.
+     *
+     * @param filename the name of the file that contains the data
+     * @throws IllegalArgumentException if a line has no tab or its weight
+     *                                  is not a long
+     * @throws UncheckedIOException if the file cannot be read
+     */
     public DataAnalyzer(String filename) {
-        In input = new In(filename);
         List<SearchTerm> stList = new ArrayList<>();
-        for (String line = input.readLine();
-             line != null; line = input.readLine()) {
-            String[] lineComponents = line.split("\t", 2);
-            SearchTerm st = new SearchTerm(lineComponents[1],
-                    Integer.parseInt(lineComponents[0].trim()));
-            stList.add(st);
+        try (BufferedReader input = new BufferedReader(new InputStreamReader(
+                new FileInputStream(filename), StandardCharsets.UTF_8))) {
+            for (String line = input.readLine();
+                 line != null; line = input.readLine()) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                int tab = line.indexOf('\t');
+                if (tab < 0) {
+                    throw new IllegalArgumentException(
+                            "City record has no tab: " + line);
+                }
+                stList.add(new SearchTerm(line.substring(tab + 1),
+                        Long.parseLong(line.substring(0, tab).trim())));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-
-        int numTerms = stList.size();
-        searchTerms = new SearchTerm[numTerms];
-        searchTerms = stList.toArray(searchTerms);
-
+        searchTerms = stList.toArray(new SearchTerm[0]);
     }
 
     public SearchTerm[] getSearchTerms() {
         return searchTerms;
     }
 
+    /**
+     * Get an AutoCompletor of the cities, sharded by first character.
+     * It is built, with its shards in parallel, the first time it is asked
+     * for.
+     *
+     * @return the sharded AutoCompletor of the cities
+     */
+    public synchronized ShardedAutoCompletor getAutoCompletor() {
+        if (autoCompletor == null) {
+            autoCompletor = new ShardedAutoCompletor(searchTerms);
+        }
+        return autoCompletor;
+    }
+
     public static void main(String[] args) {
         DataAnalyzer da = new DataAnalyzer(CITIES_DATA);
         SearchTerm[] searchTerms = da.searchTerms;
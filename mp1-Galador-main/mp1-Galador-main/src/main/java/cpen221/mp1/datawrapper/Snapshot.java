@@ -0,0 +1,122 @@
+package cpen221.mp1.datawrapper;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Helpers for reading and writing binary snapshot files.
+ * A snapshot starts with a magic number identifying its type and a format
+ * version, followed by big-endian primitives and length-prefixed UTF-8
+ * strings. Snapshots are read back through a memory-mapped buffer.
+ *
+ * @author W1nst0n03
+ */
+public final class Snapshot {
+
+    private Snapshot() {
+    }
+
+    /**
+     * Creates a snapshot file and writes its header.
+     *
+     * @param fileName the location of the file to be written
+     * @param magic the number identifying the type of snapshot
+     * @param version the version of the snapshot format
+     * @return a stream positioned after the header; the caller closes it
+     * @throws IOException if the file cannot be written
+     */
+    public static DataOutputStream create(String fileName, int magic,
+                                          int version) throws IOException {
+        DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(fileName)));
+        out.writeInt(magic);
+        out.writeInt(version);
+        return out;
+    }
+
+    /**
+     * Memory-maps a snapshot file and checks its header.
+     *
+     * @param fileName the location of the file to be read
+     * @param magic the number identifying the expected type of snapshot
+     * @param version the expected version of the snapshot format
+     * @return a buffer positioned after the header
+     * @throws IOException if the file cannot be read or is not a snapshot
+     *                     of the expected type and version
+     */
+    public static ByteBuffer open(String fileName, int magic, int version)
+            throws IOException {
+        ByteBuffer buffer;
+        try (RandomAccessFile file = new RandomAccessFile(fileName, "r");
+             FileChannel channel = file.getChannel()) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    channel.size());
+        }
+        if (buffer.remaining() < 2 * Integer.BYTES
+                || buffer.getInt() != magic || buffer.getInt() != version) {
+            throw new IOException(fileName
+                    + " is not a snapshot of the expected type and version");
+        }
+        return buffer;
+    }
+
+    /**
+     * Writes a string as its UTF-8 length followed by its UTF-8 bytes.
+     *
+     * @param out the stream to write to
+     * @param value the string to write; is not null
+     * @throws IOException if the stream cannot be written
+     */
+    public static void writeString(DataOutputStream out, String value)
+            throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a count of elements that follow it, checking that it is not
+     * negative and that the rest of the buffer can hold that many elements,
+     * so a corrupt count is reported before anything is allocated for it.
+     *
+     * @param buffer the buffer to read from
+     * @param elementBytes the fewest bytes each element takes; is not
+     *                     negative
+     * @return the count
+     * @throws IOException if the count is negative or larger than the rest
+     *                     of the buffer can hold
+     */
+    public static int readCount(ByteBuffer buffer, long elementBytes)
+            throws IOException {
+        if (buffer.remaining() < Integer.BYTES) {
+            throw new IOException("The snapshot is truncated");
+        }
+        int count = buffer.getInt();
+        if (count < 0 || count * elementBytes > buffer.remaining()) {
+            throw new IOException("The snapshot has a corrupt count: "
+                    + count);
+        }
+        return count;
+    }
+
+    /**
+     * Reads a string written by writeString.
+     *
+     * @param buffer the buffer to read from
+     * @return the string
+     * @throws IOException if the length of the string is negative or longer
+     *                     than the rest of the buffer
+     */
+    public static String readString(ByteBuffer buffer) throws IOException {
+        byte[] bytes = new byte[readCount(buffer, 1)];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+}
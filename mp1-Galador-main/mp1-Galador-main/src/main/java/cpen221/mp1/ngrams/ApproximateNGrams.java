@@ -0,0 +1,182 @@
+package cpen221.mp1.ngrams;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents approximate NGrams, counted in a fixed amount of memory for
+ * corpora too large to count exactly.
+ * For every n, the n-grams are counted in a Count-Min Sketch, which
+ * estimates the count of any n-gram, and the most frequent n-grams are
+ * tracked with Space-Saving. An estimated count is never below the true
+ * count and, with probability at least 1 - delta, is at most epsilon times
+ * the number of n-grams of that length above it.
+ * The length of the n-grams is bounded, so the memory used is fixed by
+ * the parameters and not by the text.
+ *
+ * @author W1nst0n03
+ */
+public class ApproximateNGrams {
+
+    /**
+     * The largest number of words in the n-grams that are counted.
+     */
+    public static final int MAX_GRAM_COUNT = 8;
+
+    private final int maxN;
+    private final double epsilon;
+    private final double delta;
+    private final int heavyHitters;
+    private final List<CountMinSketch> sketches = new ArrayList<>();
+    private final List<SpaceSaving> frequent = new ArrayList<>();
+
+    /**
+     * Creates an empty ApproximateNGrams object.
+     * Text is added with accept or acceptFile.
+     *
+     * @param gramCount Indicator to only count a specific amount of ngrams;
+     *                  is between 1 and MAX_GRAM_COUNT
+     * @param epsilon the largest error of an estimated count, as a fraction
+     *                of the number of n-grams of the same length;
+     *                is between 0 and 1
+     * @param delta the probability of an estimate exceeding that error;
+     *              is between 0 and 1
+     * @param heavyHitters the number of most frequent n-grams to track for
+     *                     each n; is greater than 0
+     * @throws IllegalArgumentException if gramCount is out of range
+     */
+    public ApproximateNGrams(int gramCount, double epsilon, double delta,
+                             int heavyHitters) {
+        if (gramCount < 1 || gramCount > MAX_GRAM_COUNT) {
+            throw new IllegalArgumentException(
+                    "The n-gram length must be between 1 and "
+                            + MAX_GRAM_COUNT + ": " + gramCount);
+        }
+        this.maxN = gramCount;
+        this.epsilon = epsilon;
+        this.delta = delta;
+        this.heavyHitters = heavyHitters;
+    }
+
+    /**
+     * Adds the n-grams of one more sentence to the counts.
+     * The hash of each n-gram extends that of its prefix, so an n-gram's
+     * string is only built when it starts being tracked as frequent.
+     *
+     * @param sentence the text to add; is not null
+     */
+    public void accept(String sentence) {
+        String[] words = Tokenizer.standard().tokenize(sentence);
+        while (sketches.size() < Math.min(words.length, maxN)) {
+            sketches.add(new CountMinSketch(epsilon, delta));
+            frequent.add(new SpaceSaving(heavyHitters));
+        }
+        for (int start = 0; start < words.length; start++) {
+            long state = GramHash.EMPTY;
+            for (int n = 0; n < maxN && start + n < words.length; n++) {
+                if (n > 0) {
+                    state = GramHash.extend(state, ' ');
+                }
+                state = GramHash.extend(state, words[start + n]);
+                long hash = GramHash.finish(state);
+                sketches.get(n).add(hash, 1L);
+                if (!frequent.get(n).add(hash, 1L)) {
+                    String nGram = String.join(" ",
+                            Arrays.copyOfRange(words, start, start + n + 1));
+                    frequent.get(n).add(hash, nGram, 1L);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the n-grams of every line of a file to the counts, treating each
+     * line as one sentence. The file is streamed.
+     *
+     * @param fileName the location of the file to be read
+     * @throws IOException if the file does not exist or cannot be read
+     */
+    public void acceptFile(String fileName) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(
+                Paths.get(fileName), StandardCharsets.UTF_8)) {
+            for (String line = reader.readLine(); line != null;
+                 line = reader.readLine()) {
+                this.accept(line);
+            }
+        }
+    }
+
+    /**
+     * Estimates the number of times an n-gram has occurred.
+     *
+     * @param n the number of words in the n-gram
+     * @param nGram the words of the n-gram, separated by single spaces, in
+     *              the form of the keys of NGrams.getAllNGrams
+     * @return an estimate that is at least the true count
+     */
+    public long getEstimatedCount(int n, String nGram) {
+        if (n < 1 || n > sketches.size()) {
+            return 0;
+        }
+        long hash = GramHash.of(nGram);
+        long estimate = sketches.get(n - 1).estimate(hash);
+        long tracked = frequent.get(n - 1).count(hash);
+        return tracked < 0 ? estimate : Math.min(estimate, tracked);
+    }
+
+    /**
+     * Get the number of n-grams of a length that have been counted,
+     * including repeats.
+     *
+     * @param n the length of the n-grams
+     * @return the total count of n-grams of length n
+     */
+    public long getTotalCount(int n) {
+        return n < 1 || n > sketches.size() ? 0 : sketches.get(n - 1).total();
+    }
+
+    /**
+     * Get the most frequent n-grams of a length with their estimated
+     * counts.
+     *
+     * @param n the length of the n-grams
+     * @param limit the largest number of n-grams to return
+     * @return a map of the most frequent n-grams to their estimated counts,
+     *         iterated from the most to the least frequent
+     */
+    public Map<String, Long> getTopNGrams(int n, int limit) {
+        Map<String, Long> top = new LinkedHashMap<>();
+        if (n < 1 || n > frequent.size()) {
+            return top;
+        }
+        for (String nGram : frequent.get(n - 1).top(limit)) {
+            top.put(nGram, getEstimatedCount(n, nGram));
+        }
+        return top;
+    }
+
+    /**
+     * Get the tracked frequent n-grams in the format of
+     * NGrams.getAllNGrams, so they can be given to an AutoCompletor.
+     *
+     * @return a list with the i-th entry being the most frequent
+     *         (i+1)-grams and their estimated counts
+     */
+    public List<Map<String, Long>> getFrequentNGrams() {
+        List<Map<String, Long>> maps = new ArrayList<>();
+        for (int n = 1; n <= frequent.size(); n++) {
+            maps.add(new HashMap<>(getTopNGrams(n, heavyHitters)));
+        }
+        return maps;
+    }
+
+}
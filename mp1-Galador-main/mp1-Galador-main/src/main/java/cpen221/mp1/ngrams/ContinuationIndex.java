@@ -0,0 +1,94 @@
+package cpen221.mp1.ngrams;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Lists, for every context of up to n-1 words, the words that have
+ * followed it, from the most to the least frequent.
+ * The n-grams of each length are sorted once by their (n-1)-gram prefix
+ * and then by count, so the continuations of a context are a contiguous
+ * run and its top k are the first k of the run.
+ * An index is a snapshot of the count tables it was built from.
+ *
+ * @author W1nst0n03
+ */
+final class ContinuationIndex {
+
+    private final int[][] starts;
+    private final int[][] grams;
+
+    /**
+     * Builds the index of a list of count tables.
+     *
+     * @param gramTables the count tables, the i-th one holding the
+     *                   (i+1)-grams; is not null
+     * @param words the vocabulary, indexed by word id; is not null
+     */
+    ContinuationIndex(List<GramTable> gramTables, List<String> words) {
+        this.starts = new int[gramTables.size()][];
+        this.grams = new int[gramTables.size()][];
+        for (int n = 0; n < gramTables.size(); n++) {
+            GramTable table = gramTables.get(n);
+            int contexts = n == 0 ? 1 : gramTables.get(n - 1).size();
+            int[] start = new int[contexts + 1];
+            for (int id = 0; id < table.size(); id++) {
+                start[contextOf(table, n, id) + 1]++;
+            }
+            for (int context = 0; context < contexts; context++) {
+                start[context + 1] += start[context];
+            }
+            int level = n;
+            Comparator<Integer> order = Comparator
+                    .<Integer>comparingInt(id -> contextOf(table, level, id))
+                    .thenComparing(id -> table.count(id),
+                            Comparator.reverseOrder())
+                    .thenComparing(id -> words.get(table.word(id)));
+            starts[n] = start;
+            grams[n] = Arrays.stream(sortedIds(table.size(), order))
+                    .mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    /**
+     * Returns the number of words in the longest context that is indexed.
+     *
+     * @return the longest context length
+     */
+    int longestContext() {
+        return grams.length - 1;
+    }
+
+    /**
+     * Returns the n-grams that continue a context, most frequent first.
+     *
+     * @param length the number of words in the context; is between 0 and
+     *               longestContext()
+     * @param context the id of the context in the table of length-grams,
+     *                ignored when length is 0
+     * @param limit the largest number of n-grams to return
+     * @return the ids of the (length+1)-grams whose prefix is the context
+     */
+    int[] continuations(int length, int context, int limit) {
+        int[] start = starts[length];
+        int key = length == 0 ? 0 : context;
+        int from = start[key];
+        return Arrays.copyOfRange(grams[length], from,
+                from + Math.min(Math.max(limit, 0), start[key + 1] - from));
+    }
+
+    private static int contextOf(GramTable table, int n, int id) {
+        return n == 0 ? 0 : table.prefix(id);
+    }
+
+    private static Integer[] sortedIds(int size, Comparator<Integer> order) {
+        Integer[] ids = new Integer[size];
+        for (int id = 0; id < size; id++) {
+            ids[id] = id;
+        }
+        Arrays.sort(ids, order);
+        return ids;
+    }
+
+}
@@ -0,0 +1,96 @@
+package cpen221.mp1.ngrams;
+
+/**
+ * A Count-Min Sketch of string counts in a fixed amount of memory.
+ * Strings are given by their GramHash, so callers that build hashes
+ * incrementally never need the strings themselves.
+ * Each string is hashed to one counter in each row, and its estimate is
+ * the smallest of its counters. Counters are raised with the conservative
+ * update, only as far as needed to keep every estimate an upper bound, so
+ * estimates are never below the true count and, with probability at least
+ * 1 - delta, are at most epsilon times the total count above it.
+ *
+ * @author W1nst0n03
+ */
+final class CountMinSketch {
+
+    private final long[][] rows;
+    private final int width;
+    private long total = 0;
+
+    /**
+     * Creates an empty sketch.
+     *
+     * @param epsilon the largest error, as a fraction of the total count;
+     *                is between 0 and 1
+     * @param delta the probability of an estimate exceeding the error;
+     *              is between 0 and 1
+     */
+    CountMinSketch(double epsilon, double delta) {
+        this.width = (int) Math.ceil(Math.E / epsilon);
+        this.rows = new long[(int) Math.ceil(Math.log(1 / delta))][width];
+    }
+
+    /**
+     * Adds to the count of a string.
+     *
+     * @param hash the GramHash of the string to count
+     * @param count the amount to add; is positive
+     * @return the new estimate of the string's count
+     */
+    long add(long hash, long count) {
+        long hash1 = hash;
+        long hash2 = second(hash);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < rows.length; row++) {
+            estimate = Math.min(estimate, rows[row][slot(hash1, hash2, row)]);
+        }
+        long updated = estimate + count;
+        for (int row = 0; row < rows.length; row++) {
+            int slot = slot(hash1, hash2, row);
+            rows[row][slot] = Math.max(rows[row][slot], updated);
+        }
+        total += count;
+        return updated;
+    }
+
+    /**
+     * Returns the estimated count of a string.
+     *
+     * @param hash the GramHash of the string to look up
+     * @return an estimate that is at least the string's true count
+     */
+    long estimate(long hash) {
+        long hash1 = hash;
+        long hash2 = second(hash);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < rows.length; row++) {
+            estimate = Math.min(estimate, rows[row][slot(hash1, hash2, row)]);
+        }
+        return estimate;
+    }
+
+    /**
+     * Returns the sum of every count added.
+     *
+     * @return the total count
+     */
+    long total() {
+        return total;
+    }
+
+    private int slot(long hash1, long hash2, int row) {
+        return (int) Long.remainderUnsigned(hash1 + row * hash2, width);
+    }
+
+    /**
+     * Derives the odd step between the slots of consecutive rows.
+     *
+     * @param hash the hash of a string
+     * @return a second, odd hash of the string
+     */
+    private static long second(long hash) {
+        return GramHash.finish(hash) | 1L;
+    }
+
+}
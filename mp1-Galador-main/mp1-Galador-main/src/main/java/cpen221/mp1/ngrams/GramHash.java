@@ -0,0 +1,72 @@
+package cpen221.mp1.ngrams;
+
+/**
+ * Hashes n-grams to 64 bits with FNV-1a over their chars, followed by the
+ * finalizer of MurmurHash3 to spread the bits.
+ * A hash can be built one word at a time, so the hash of an n-gram is
+ * found by extending that of its (n-1)-gram prefix, without building the
+ * n-gram's string; the result is the same as hashing the string.
+ *
+ * @author W1nst0n03
+ */
+public final class GramHash {
+
+    /**
+     * The state of the hash before any char is added.
+     */
+    public static final long EMPTY = 0xcbf29ce484222325L;
+
+    private static final long PRIME = 0x100000001b3L;
+
+    private GramHash() {
+    }
+
+    /**
+     * Hashes a string.
+     *
+     * @param item the string to hash; is not null
+     * @return the hash of the string
+     */
+    public static long of(String item) {
+        return finish(extend(EMPTY, item));
+    }
+
+    /**
+     * Adds the chars of a word to the state of a hash.
+     *
+     * @param state the state of the hash so far
+     * @param word the chars to add; is not null
+     * @return the state of the hash after adding the chars
+     */
+    public static long extend(long state, String word) {
+        long hash = state;
+        for (int i = 0; i < word.length(); i++) {
+            hash = (hash ^ word.charAt(i)) * PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Adds one char to the state of a hash.
+     *
+     * @param state the state of the hash so far
+     * @param c the char to add
+     * @return the state of the hash after adding the char
+     */
+    public static long extend(long state, char c) {
+        return (state ^ c) * PRIME;
+    }
+
+    /**
+     * Turns the state of a hash into the hash of the chars added to it.
+     *
+     * @param state the state of the hash
+     * @return the hash
+     */
+    public static long finish(long state) {
+        long hash = (state ^ (state >>> 33)) * 0xff51afd7ed558ccdL;
+        hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+
+}
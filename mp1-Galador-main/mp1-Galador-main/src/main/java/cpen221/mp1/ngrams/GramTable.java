@@ -0,0 +1,86 @@
+package cpen221.mp1.ngrams;
+
+import java.util.Arrays;
+
+/**
+ * Counts the distinct n-grams of a single length n.
+ * Each n-gram is stored as the id of its (n-1)-gram prefix followed by
+ * the id of its last word, so no n-gram strings are built while counting.
+ * Unigrams use a prefix of -1.
+ *
+ * @author W1nst0n03
+ */
+final class GramTable {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final LongIntMap index = new LongIntMap();
+    private int[] prefixes = new int[INITIAL_CAPACITY];
+    private int[] words = new int[INITIAL_CAPACITY];
+    private long[] counts = new long[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Adds the given count to an n-gram, creating it if needed.
+     *
+     * @param prefix the id of the (n-1)-gram prefix, or -1 for a unigram
+     * @param word the vocabulary id of the last word of the n-gram
+     * @param count the number of occurrences to add; is positive
+     * @return the id of the n-gram within this table
+     */
+    int add(int prefix, int word, long count) {
+        long key = pack(prefix, word);
+        int id = index.get(key);
+        if (id < 0) {
+            id = size;
+            if (size == counts.length) {
+                prefixes = Arrays.copyOf(prefixes, size * 2);
+                words = Arrays.copyOf(words, size * 2);
+                counts = Arrays.copyOf(counts, size * 2);
+            }
+            prefixes[id] = prefix;
+            words[id] = word;
+            index.put(key, id);
+            size++;
+        }
+        counts[id] += count;
+        return id;
+    }
+
+    /**
+     * Returns the id of an n-gram.
+     *
+     * @param prefix the id of the (n-1)-gram prefix, or -1 for a unigram
+     * @param word the vocabulary id of the last word of the n-gram
+     * @return the id of the n-gram, or -1 if it has not been counted
+     */
+    int find(int prefix, int word) {
+        return index.get(pack(prefix, word));
+    }
+
+    /**
+     * Returns the number of distinct n-grams in this table.
+     *
+     * @return the number of distinct n-grams in this table
+     */
+    int size() {
+        return size;
+    }
+
+    int prefix(int id) {
+        return prefixes[id];
+    }
+
+    int word(int id) {
+        return words[id];
+    }
+
+    long count(int id) {
+        return counts[id];
+    }
+
+    private static long pack(int prefix, int word) {
+        return ((long) prefix << 32) | (word & 0xFFFFFFFFL);
+    }
+
+}
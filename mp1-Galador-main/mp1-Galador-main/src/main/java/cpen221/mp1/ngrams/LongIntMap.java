@@ -0,0 +1,133 @@
+package cpen221.mp1.ngrams;
+
+import java.util.Arrays;
+
+/**
+ * An open addressing hash map from primitive long keys to non-negative
+ * int values, used to look up packed n-gram keys without boxing.
+ *
+ * @author W1nst0n03
+ */
+final class LongIntMap {
+
+    private static final int ABSENT = -1;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+
+    /**
+     * Creates an empty map.
+     */
+    LongIntMap() {
+        keys = new long[INITIAL_CAPACITY];
+        values = new int[INITIAL_CAPACITY];
+        Arrays.fill(values, ABSENT);
+    }
+
+    /**
+     * Returns the value mapped to the given key.
+     *
+     * @param key the key to look up
+     * @return the value mapped to key, or -1 if key is not in the map
+     */
+    int get(long key) {
+        int mask = keys.length - 1;
+        for (int slot = mix(key) & mask; values[slot] != ABSENT;
+             slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+        }
+        return ABSENT;
+    }
+
+    /**
+     * Maps the given key to the given value, replacing any earlier value.
+     *
+     * @param key the key to map
+     * @param value the value to map key to; is not negative
+     */
+    void put(long key, int value) {
+        if ((size + 1) * 2 > keys.length) {
+            grow();
+        }
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (values[slot] != ABSENT) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+    }
+
+    /**
+     * Removes a key from the map, if it is there.
+     * The entries after it in its probe run are shifted back, so lookups
+     * never need to skip removed slots.
+     *
+     * @param key the key to remove
+     */
+    void remove(long key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (values[slot] != ABSENT && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (values[slot] == ABSENT) {
+            return;
+        }
+        values[slot] = ABSENT;
+        size--;
+        for (int next = (slot + 1) & mask; values[next] != ABSENT;
+             next = (next + 1) & mask) {
+            int home = mix(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                keys[slot] = keys[next];
+                values[slot] = values[next];
+                values[next] = ABSENT;
+                slot = next;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of keys in the map.
+     *
+     * @return the number of keys in the map
+     */
+    int size() {
+        return size;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldValues.length * 2];
+        Arrays.fill(values, ABSENT);
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != ABSENT) {
+                int slot = mix(oldKeys[i]) & mask;
+                while (values[slot] != ABSENT) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+}
@@ -1,10 +1,23 @@
 package cpen221.mp1.ngrams;
 
-import java.text.BreakIterator;
+import cpen221.mp1.datawrapper.Snapshot;
+
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * Represents NGrams.
@@ -13,8 +26,18 @@ import java.util.Map;
  */
 public class NGrams {
 
-    private final ArrayList<Long> uniqueCount = new ArrayList<>();
-    private final List<HashMap<String, Long>> nGramList = new ArrayList<>();
+    private static final int MIN_SENTENCES_PER_TASK = 256;
+    private static final int SNAPSHOT_MAGIC = 0x4E47524D;
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private final int maxN;
+    private final Tokenizer tokenizer;
+    private final Map<String, Integer> vocabulary = new HashMap<>();
+    private final List<String> words = new ArrayList<>();
+    private final List<GramTable> gramTables = new ArrayList<>();
+    private int longestSentence = 0;
+    private List<HashMap<String, Long>> nGramList;
+    private ContinuationIndex continuations;
 
     /**
      * Creates an NGrams object.
@@ -23,45 +46,14 @@ public class NGrams {
      *             is not null and is not empty.
      */
     public NGrams(String[] text) {
-        int longestSentence = 0;
-        ArrayList<String[]> sentenceList = new ArrayList<>();
-        for (String sentence: text) {
-            sentenceList.add(this.getWords(sentence));
-            if (this.getWords(sentence).length > longestSentence) {
-                longestSentence = this.getWords(sentence).length;
-            }
-        }
-        for (int x = 0; x < longestSentence; x++) {
-            HashMap<String, Long> nthGram = new HashMap<>();
-            nGramList.add(nthGram);
-            uniqueCount.add(0L);
-        }
-
-        for (int nGram = 0; nGram < longestSentence; nGram++) {
-            for (String[] strings : sentenceList) {
-                for (int j = 0; j < strings.length - nGram; j++) {
-                    StringBuilder gramBuilder = new StringBuilder();
-                    for (int getGram = 0; getGram <= nGram; getGram++) {
-                        gramBuilder.append(strings[j + getGram]);
-                        if (getGram < nGram) {
-                            gramBuilder.append(" ");
-                        }
-                    }
-                    String currentNgram = gramBuilder.toString();
-                    if (nGramList.get(nGram).containsKey(currentNgram)) {
-                        nGramList.get(nGram).replace(currentNgram,
-                                nGramList.get(nGram).get(currentNgram) + 1);
-                    } else {
-                        nGramList.get(nGram).put(currentNgram, 1L);
-                        uniqueCount.set(nGram, uniqueCount.get(nGram) + 1L);
-                    }
-                }
-            }
-        }
+        this(text, Integer.MAX_VALUE);
     }
 
     /**
      * Creates an NGrams object.
+     * Each sentence is tokenized once and every word is mapped to an id in
+     * the vocabulary, so n-grams are counted as id tuples and n-gram strings
+     * are only built when they are requested.
      *
      * @param text all the text to analyze and create n-grams from;
      *             is not null and is not empty.
@@ -69,40 +61,215 @@ public class NGrams {
      *                  is not 0, and is not larger than the longest sentence
      */
     public NGrams(String[] text, int gramCount) {
-        int longestSentence = 0;
-        ArrayList<String[]> sentenceList = new ArrayList<>();
+        this(gramCount);
         for (String sentence: text) {
-            sentenceList.add(this.getWords(sentence));
-            if (this.getWords(sentence).length > longestSentence) {
-                longestSentence = this.getWords(sentence).length;
+            this.accept(sentence);
+        }
+    }
+
+    /**
+     * Creates an NGrams object, counting the sentences in parallel.
+     * Each worker counts a range of sentences into its own NGrams object
+     * and the partial counts are merged, so the result is the same as
+     * that of NGrams(text, gramCount).
+     *
+     * @param text all the text to analyze and create n-grams from;
+     *             is not null and is not empty.
+     * @param gramCount Indicator to only make a specific amount of ngrams;
+     *                  is greater than 0
+     * @param parallelism the number of worker threads to use;
+     *                    is greater than 0
+     */
+    public NGrams(String[] text, int gramCount, int parallelism) {
+        this(gramCount);
+        int chunkSize = Math.max(MIN_SENTENCES_PER_TASK,
+                text.length / (parallelism * 4) + 1);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            this.merge(pool.invoke(
+                    new CountTask(text, 0, text.length, gramCount, chunkSize)));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Creates an empty NGrams object that counts n-grams of every length.
+     * Text is added with accept, acceptFile or merge.
+     */
+    public NGrams() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates an empty NGrams object.
+     * Text is added with accept, acceptFile or merge.
+     *
+     * @param gramCount Indicator to only make a specific amount of ngrams;
+     *                  is greater than 0
+     */
+    public NGrams(int gramCount) {
+        this(gramCount, Tokenizer.standard());
+    }
+
+    /**
+     * Creates an empty NGrams object that splits sentences into words with
+     * the given tokenizer.
+     * Text is added with accept, acceptFile or merge.
+     *
+     * @param gramCount Indicator to only make a specific amount of ngrams;
+     *                  is greater than 0
+     * @param tokenizer the tokenizer to split sentences with; is not null
+     */
+    public NGrams(int gramCount, Tokenizer tokenizer) {
+        this.maxN = gramCount;
+        this.tokenizer = tokenizer;
+    }
+
+    /**
+     * Adds the n-grams of one more sentence to the counts.
+     *
+     * @param sentence the text to add; is not null
+     */
+    public void accept(String sentence) {
+        countSentence(tokenizer.tokenize(sentence));
+        nGramList = null;
+        continuations = null;
+    }
+
+    /**
+     * Adds the n-grams of every line of a file to the counts, treating each
+     * line as one sentence. The file is streamed, so only the counts are
+     * kept in memory and not the text.
+     *
+     * @param fileName the location of the file to be read
+     * @throws IOException if the file does not exist or cannot be read
+     */
+    public void acceptFile(String fileName) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(
+                Paths.get(fileName), StandardCharsets.UTF_8)) {
+            for (String line = reader.readLine(); line != null;
+                 line = reader.readLine()) {
+                this.accept(line);
             }
         }
-        for (int x = 0; x < longestSentence; x++) {
-            HashMap<String, Long> nthGram = new HashMap<>();
-            nGramList.add(nthGram);
-            uniqueCount.add(0L);
-        }
-
-        for (int nGram = 0; nGram < gramCount; nGram++) {
-            for (String[] strings : sentenceList) {
-                for (int j = 0; j < strings.length - nGram; j++) {
-                    StringBuilder gramBuilder = new StringBuilder();
-                    for (int getGram = 0; getGram <= nGram; getGram++) {
-                        gramBuilder.append(strings[j + getGram]);
-                        if (getGram < nGram) {
-                            gramBuilder.append(" ");
-                        }
-                    }
-                    String currentNgram = gramBuilder.toString();
-                    if (nGramList.get(nGram).containsKey(currentNgram)) {
-                        nGramList.get(nGram).replace(currentNgram,
-                                nGramList.get(nGram).get(currentNgram) + 1);
-                    } else {
-                        nGramList.get(nGram).put(currentNgram, 1L);
-                        uniqueCount.set(nGram, uniqueCount.get(nGram) + 1L);
+    }
+
+    /**
+     * Adds all the counts of another NGrams object to this one.
+     * N-grams longer than this object's gram count are ignored.
+     *
+     * @param other the NGrams object whose counts are added; is not null
+     *              and is not modified
+     */
+    public void merge(NGrams other) {
+        int[] wordIds = new int[other.words.size()];
+        for (int i = 0; i < wordIds.length; i++) {
+            wordIds[i] = wordId(other.words.get(i));
+        }
+        longestSentence = Math.max(longestSentence, other.longestSentence);
+        int depth = Math.min(other.gramTables.size(), maxN);
+        int[] previous = new int[0];
+        for (int n = 0; n < depth; n++) {
+            if (gramTables.size() == n) {
+                gramTables.add(new GramTable());
+            }
+            GramTable from = other.gramTables.get(n);
+            GramTable to = gramTables.get(n);
+            int[] current = new int[from.size()];
+            for (int id = 0; id < current.length; id++) {
+                int prefix = from.prefix(id) < 0 ? -1 : previous[from.prefix(id)];
+                current[id] = to.add(prefix, wordIds[from.word(id)],
+                        from.count(id));
+            }
+            previous = current;
+        }
+        nGramList = null;
+        continuations = null;
+    }
+
+    /**
+     * Writes the vocabulary and count tables to a binary snapshot file,
+     * which can be read back with load.
+     *
+     * @param fileName the location of the file to be written
+     * @throws IOException if the file cannot be written
+     */
+    public void save(String fileName) throws IOException {
+        try (DataOutputStream out = Snapshot.create(fileName, SNAPSHOT_MAGIC,
+                SNAPSHOT_VERSION)) {
+            out.writeInt(maxN);
+            out.writeInt(longestSentence);
+            out.writeInt(words.size());
+            for (String word : words) {
+                Snapshot.writeString(out, word);
+            }
+            out.writeInt(gramTables.size());
+            for (GramTable table : gramTables) {
+                out.writeInt(table.size());
+                for (int id = 0; id < table.size(); id++) {
+                    out.writeInt(table.prefix(id));
+                    out.writeInt(table.word(id));
+                    out.writeLong(table.count(id));
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads an NGrams object from a snapshot file written by save.
+     * The file is memory-mapped, and no text is tokenized.
+     *
+     * @param fileName the location of the file to be read
+     * @return an NGrams object with the same counts as the one saved
+     * @throws IOException if the file cannot be read, is not an NGrams
+     *                     snapshot or is truncated or corrupt
+     */
+    public static NGrams load(String fileName) throws IOException {
+        ByteBuffer in = Snapshot.open(fileName, SNAPSHOT_MAGIC,
+                SNAPSHOT_VERSION);
+        try {
+            int gramCount = in.getInt();
+            int longestSentence = in.getInt();
+            if (gramCount <= 0 || longestSentence < 0) {
+                throw new IOException(fileName + " is corrupt");
+            }
+            NGrams nGrams = new NGrams(gramCount);
+            nGrams.longestSentence = longestSentence;
+            int vocabularySize = Snapshot.readCount(in, Integer.BYTES);
+            for (int i = 0; i < vocabularySize; i++) {
+                nGrams.wordId(Snapshot.readString(in));
+            }
+            if (nGrams.words.size() != vocabularySize) {
+                throw new IOException(fileName + " is corrupt");
+            }
+            int tables = Snapshot.readCount(in, Integer.BYTES);
+            int previousSize = 0;
+            for (int n = 0; n < tables; n++) {
+                GramTable table = new GramTable();
+                int size = Snapshot.readCount(in,
+                        2 * Integer.BYTES + Long.BYTES);
+                for (int id = 0; id < size; id++) {
+                    int prefix = in.getInt();
+                    int word = in.getInt();
+                    long count = in.getLong();
+                    boolean validPrefix = n == 0 ? prefix == -1
+                            : prefix >= 0 && prefix < previousSize;
+                    if (!validPrefix || word < 0 || word >= vocabularySize
+                            || count <= 0) {
+                        throw new IOException(fileName + " is corrupt");
                     }
+                    table.add(prefix, word, count);
+                }
+                if (table.size() != size) {
+                    throw new IOException(fileName + " is corrupt");
                 }
+                nGrams.gramTables.add(table);
+                previousSize = table.size();
             }
+            return nGrams;
+        } catch (BufferUnderflowException e) {
+            throw new IOException(fileName + " is truncated", e);
         }
     }
 
@@ -118,8 +285,8 @@ public class NGrams {
      */
     public long getTotalNGramCount(int n) {
         long uniqueToN = 0;
-        for (int i = 0; i < n && i < uniqueCount.size(); i++) {
-            uniqueToN += uniqueCount.get(i);
+        for (int i = 0; i < n && i < gramTables.size(); i++) {
+            uniqueToN += gramTables.get(i).size();
         }
         return uniqueToN;
     }
@@ -132,35 +299,184 @@ public class NGrams {
      * with the i-th entry being all the (i+1)-grams and their counts
      */
     public List<Map<String, Long>> getAllNGrams() {
+        if (nGramList == null) {
+            nGramList = buildNGramMaps();
+        }
         return new ArrayList<>(nGramList);
     }
 
     /**
-     * Get the αll of the individual words in a string and input them
-     * into an array.
+     * Predicts the words most likely to follow some text.
+     * The continuations of the last n-1 words of the text are taken first,
+     * from the most to the least frequent, then those of the last n-2
+     * words, and so on down to the most frequent words overall, skipping
+     * words that are already predicted. The index of continuations is
+     * built the first time it is needed after the counts change, so each
+     * prediction only looks up the context and reads the top of a list.
      *
-     * @param text String to be divided into individual words
-     * @return an array strings where each string is an individual word
-     *         in the given string
+     * @param text the text typed so far; is not null
+     * @param limit the largest number of words to predict
+     * @return the predicted next words, most likely first
      */
-    private String[] getWords(String text) {
-        ArrayList<String> words = new ArrayList<>();
-        BreakIterator wb = BreakIterator.getWordInstance();
-        wb.setText(text);
-        int start = wb.first();
-        for (int end = wb.next(); end
-                != BreakIterator.DONE; start = end, end = wb.next()) {
-            String word = text.substring(start, end).toLowerCase();
-            word = word.replaceAll("^\\s*\\p{Punct}+\\s*",
-                    "").replaceAll("\\s*\\p{Punct}+\\s*$", "");
-            if (!word.equals(" ") && !word.equals("")) {
-                words.add(word);
+    public List<String> predictNextWords(String text, int limit) {
+        if (continuations == null) {
+            continuations = new ContinuationIndex(gramTables, words);
+        }
+        String[] context = tokenizer.tokenize(text);
+        List<String> predicted = new ArrayList<>();
+        Set<Integer> seen = new HashSet<>();
+        int longest = Math.min(context.length, continuations.longestContext());
+        for (int length = longest; length >= 0; length--) {
+            int id = contextId(context, context.length - length);
+            if (id < 0 && length > 0) {
+                continue;
+            }
+            GramTable table = gramTables.get(length);
+            for (int gram : continuations.continuations(length, id, limit)) {
+                if (predicted.size() == limit) {
+                    return predicted;
+                }
+                if (seen.add(table.word(gram))) {
+                    predicted.add(words.get(table.word(gram)));
+                }
             }
         }
-        String[] wordsArray = new String[words.size()];
-        words.toArray(wordsArray);
-        return wordsArray;
+        return predicted;
     }
 
-}
+    /**
+     * Counts every n-gram of a tokenized sentence, up to maxN words long.
+     *
+     * @param sentence the words of the sentence, in order
+     */
+    private void countSentence(String[] sentence) {
+        int[] ids = new int[sentence.length];
+        for (int i = 0; i < sentence.length; i++) {
+            ids[i] = wordId(sentence[i]);
+        }
+        longestSentence = Math.max(longestSentence, ids.length);
+        while (gramTables.size() < Math.min(ids.length, maxN)) {
+            gramTables.add(new GramTable());
+        }
+        for (int start = 0; start < ids.length; start++) {
+            int gram = -1;
+            for (int n = 0; n < maxN && start + n < ids.length; n++) {
+                gram = gramTables.get(n).add(gram, ids[start + n], 1L);
+            }
+        }
+    }
 
+    /**
+     * Looks up the n-gram made of the last words of a context.
+     *
+     * @param context the words of the context, in order
+     * @param from the index of the first word of the n-gram
+     * @return the id of the n-gram in its count table, or -1 if it has
+     *         not been counted or starts at the end of the context
+     */
+    private int contextId(String[] context, int from) {
+        int gram = -1;
+        for (int i = from; i < context.length; i++) {
+            Integer word = vocabulary.get(context[i]);
+            if (word == null) {
+                return -1;
+            }
+            gram = gramTables.get(i - from).find(gram, word);
+            if (gram < 0) {
+                return -1;
+            }
+        }
+        return gram;
+    }
+
+    /**
+     * Returns the vocabulary id of a word, adding the word if it is new.
+     *
+     * @param word the word to look up
+     * @return the id of the word in the vocabulary
+     */
+    private int wordId(String word) {
+        Integer id = vocabulary.get(word);
+        if (id == null) {
+            id = words.size();
+            vocabulary.put(word, id);
+            words.add(word);
+        }
+        return id;
+    }
+
+    /**
+     * Builds the n-gram strings and counts from the count tables.
+     * There is one map for every length up to the longest sentence, and
+     * lengths beyond maxN have an empty map.
+     *
+     * @return a list with the i-th entry being all the (i+1)-grams
+     *         and their counts
+     */
+    private List<HashMap<String, Long>> buildNGramMaps() {
+        List<HashMap<String, Long>> maps = new ArrayList<>();
+        String[] previous = new String[0];
+        for (GramTable table : gramTables) {
+            HashMap<String, Long> nthGram = new HashMap<>();
+            String[] current = new String[table.size()];
+            for (int id = 0; id < table.size(); id++) {
+                String word = words.get(table.word(id));
+                int prefix = table.prefix(id);
+                current[id] = prefix < 0 ? word : previous[prefix] + " " + word;
+                nthGram.put(current[id], table.count(id));
+            }
+            maps.add(nthGram);
+            previous = current;
+        }
+        while (maps.size() < longestSentence) {
+            maps.add(new HashMap<>());
+        }
+        return maps;
+    }
+
+    /**
+     * Counts a range of sentences, splitting it in half until it is no
+     * larger than the chunk size and merging the halves' counts.
+     */
+    private static final class CountTask extends RecursiveTask<NGrams> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String[] text;
+        private final int from;
+        private final int to;
+        private final int gramCount;
+        private final int chunkSize;
+
+        CountTask(String[] text, int from, int to, int gramCount,
+                  int chunkSize) {
+            this.text = text;
+            this.from = from;
+            this.to = to;
+            this.gramCount = gramCount;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected NGrams compute() {
+            if (to - from <= chunkSize) {
+                NGrams counts = new NGrams(gramCount);
+                for (int i = from; i < to; i++) {
+                    counts.accept(text[i]);
+                }
+                return counts;
+            }
+            int middle = (from + to) >>> 1;
+            CountTask left = new CountTask(text, from, middle, gramCount,
+                    chunkSize);
+            left.fork();
+            NGrams right = new CountTask(text, middle, to, gramCount,
+                    chunkSize).compute();
+            NGrams counts = left.join();
+            counts.merge(right);
+            return counts;
+        }
+
+    }
+
+}
@@ -0,0 +1,133 @@
+package cpen221.mp1.ngrams;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Tracks the most frequent strings of a stream with the Space-Saving
+ * algorithm, using a fixed number of counters. When every counter is in
+ * use, a new string takes over the counter with the smallest count,
+ * keeping that count. Every string whose true count is more than
+ * total / capacity is always tracked, and a tracked string's count is never
+ * below its true count nor more than total / capacity above it.
+ * Strings are looked up by their GramHash, so a string only has to be
+ * built when it takes over a counter.
+ *
+ * @author W1nst0n03
+ */
+final class SpaceSaving {
+
+    private final LongIntMap slots = new LongIntMap();
+    private final Counter[] counters;
+    private final TreeSet<Counter> byCount = new TreeSet<>(
+            Comparator.comparingLong((Counter c) -> c.count)
+                    .thenComparingLong(c -> c.sequence));
+    private int size = 0;
+    private long nextSequence = 0;
+
+    /**
+     * Creates an empty tracker.
+     *
+     * @param capacity the number of strings to track; is positive
+     */
+    SpaceSaving(int capacity) {
+        this.counters = new Counter[capacity];
+    }
+
+    /**
+     * Adds to the count of a string if it is tracked.
+     *
+     * @param hash the GramHash of the string to count
+     * @param count the amount to add; is positive
+     * @return true if the string is tracked and its count was raised, false
+     *         if it must be added with add(hash, item, count)
+     */
+    boolean add(long hash, long count) {
+        int slot = slots.get(hash);
+        if (slot < 0) {
+            return false;
+        }
+        Counter counter = counters[slot];
+        byCount.remove(counter);
+        counter.count += count;
+        byCount.add(counter);
+        return true;
+    }
+
+    /**
+     * Adds to the count of a string, tracking it if it is not tracked.
+     *
+     * @param hash the GramHash of item
+     * @param item the string to count
+     * @param count the amount to add; is positive
+     */
+    void add(long hash, String item, long count) {
+        if (add(hash, count)) {
+            return;
+        }
+        long inherited = 0;
+        int slot = size;
+        if (size == counters.length) {
+            Counter smallest = byCount.pollFirst();
+            slots.remove(smallest.hash);
+            inherited = smallest.count;
+            slot = smallest.slot;
+        } else {
+            size++;
+        }
+        Counter counter = new Counter(item, hash, slot, nextSequence++);
+        counter.count = inherited + count;
+        counters[slot] = counter;
+        slots.put(hash, slot);
+        byCount.add(counter);
+    }
+
+    /**
+     * Returns the count of a tracked string.
+     *
+     * @param hash the GramHash of the string to look up
+     * @return the count of the string, which is at least its true count, or
+     *         -1 if the string is not tracked
+     */
+    long count(long hash) {
+        int slot = slots.get(hash);
+        return slot < 0 ? -1 : counters[slot].count;
+    }
+
+    /**
+     * Returns the tracked strings, from the largest count to the smallest.
+     *
+     * @param limit the largest number of strings to return
+     * @return the strings with the largest counts
+     */
+    List<String> top(int limit) {
+        List<String> top = new ArrayList<>();
+        for (Counter counter : byCount.descendingSet()) {
+            if (top.size() == limit) {
+                break;
+            }
+            top.add(counter.item);
+        }
+        return top;
+    }
+
+    private static final class Counter {
+
+        private final String item;
+        private final long hash;
+        private final int slot;
+        private long count;
+        private final long sequence;
+
+        Counter(String item, long hash, int slot, long sequence) {
+            this.item = item;
+            this.hash = hash;
+            this.slot = slot;
+            this.sequence = sequence;
+        }
+
+    }
+
+}
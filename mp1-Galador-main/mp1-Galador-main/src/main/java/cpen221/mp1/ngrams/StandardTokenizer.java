@@ -0,0 +1,187 @@
+package cpen221.mp1.ngrams;
+
+import java.nio.CharBuffer;
+import java.text.BreakIterator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Splits text at the word boundaries of BreakIterator, lower-cases each
+ * piece, strips ASCII punctuation from its ends and drops the pieces that
+ * are then empty or a single space.
+ * Text made only of ASCII letters, digits, spaces and punctuation is split
+ * by a hand-written scanner that gives the same words as BreakIterator:
+ * a word is a run of letters and digits, joined across a single ' " - . or
+ * _ between two letters, or a single ' " , or . between two digits. Any
+ * other text is split with BreakIterator.
+ *
+ * @author W1nst0n03
+ */
+final class StandardTokenizer implements Tokenizer {
+
+    static final StandardTokenizer INSTANCE = new StandardTokenizer();
+
+    private static final Pattern LEADING_PUNCTUATION =
+            Pattern.compile("^\\s*\\p{Punct}+\\s*");
+    private static final Pattern TRAILING_PUNCTUATION =
+            Pattern.compile("\\s*\\p{Punct}+\\s*$");
+    private static final int OTHER = 0;
+    private static final int LETTER = 1;
+    private static final int DIGIT = 2;
+    private static final int SPACE = 3;
+    private static final int PUNCTUATION = 4;
+    private static final String LETTER_JOINERS = "'\"-._";
+    private static final String DIGIT_JOINERS = "'\",.";
+
+    private StandardTokenizer() {
+    }
+
+    @Override
+    public String[] tokenize(String text) {
+        List<String> words = new ArrayList<>();
+        if (!scanAscii(text, (start, end) ->
+                words.add(text.substring(start, end).toLowerCase()))) {
+            words.clear();
+            breakWords(text, words);
+        }
+        return words.toArray(new String[0]);
+    }
+
+    /**
+     * Splits part of an array of chars into words. ASCII text is scanned in
+     * place, so no String is built for it.
+     */
+    @Override
+    public void tokenize(char[] text, int start, int end,
+                         WordConsumer words) {
+        for (int i = start; i < end; i++) {
+            if (kindOf(text[i]) == OTHER) {
+                Tokenizer.super.tokenize(text, start, end, words);
+                return;
+            }
+        }
+        scanAscii(CharBuffer.wrap(text, start, end - start),
+                (from, to) -> words.accept(text, start + from, start + to));
+    }
+
+    /**
+     * Splits text made only of ASCII letters, digits, spaces and
+     * punctuation.
+     *
+     * @param text the text to split
+     * @param words the consumer of the start and end of each word, which
+     *              must be lower-cased to give the word
+     * @return false if the text has any other character, in which case
+     *         some of the words may have been passed to words
+     */
+    private static boolean scanAscii(CharSequence text, WordRanges words) {
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            int kind = kindOf(text.charAt(i));
+            if (kind == OTHER) {
+                return false;
+            }
+            int start = i;
+            if (kind == PUNCTUATION) {
+                i++;
+                continue;
+            }
+            if (kind == SPACE) {
+                while (i < length && text.charAt(i) == ' ') {
+                    i++;
+                }
+                if (i - start > 1) {
+                    words.accept(start, i);
+                }
+                continue;
+            }
+            i++;
+            while (i < length) {
+                int next = kindOf(text.charAt(i));
+                if (next == LETTER || next == DIGIT) {
+                    i++;
+                } else if (next == PUNCTUATION && joins(text, i)) {
+                    i += 2;
+                } else {
+                    break;
+                }
+            }
+            words.accept(start, i);
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether a punctuation character joins the letters or digits
+     * on either side of it into one word.
+     *
+     * @param text the text
+     * @param i the index of the punctuation character, after a letter or
+     *          digit
+     * @return true if the characters on both sides are letters and the
+     *         character is a letter joiner, or both are digits and it is a
+     *         digit joiner
+     */
+    private static boolean joins(CharSequence text, int i) {
+        if (i + 1 >= text.length()) {
+            return false;
+        }
+        int before = kindOf(text.charAt(i - 1));
+        int after = kindOf(text.charAt(i + 1));
+        char c = text.charAt(i);
+        return before == LETTER && after == LETTER
+                && LETTER_JOINERS.indexOf(c) >= 0
+                || before == DIGIT && after == DIGIT
+                && DIGIT_JOINERS.indexOf(c) >= 0;
+    }
+
+    private static int kindOf(char c) {
+        if (c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z') {
+            return LETTER;
+        }
+        if (c >= '0' && c <= '9') {
+            return DIGIT;
+        }
+        if (c == ' ') {
+            return SPACE;
+        }
+        if (c > ' ' && c < 127) {
+            return PUNCTUATION;
+        }
+        return OTHER;
+    }
+
+    /**
+     * Splits text with BreakIterator.
+     *
+     * @param text the text to split
+     * @param words the list to add the words to
+     */
+    private static void breakWords(String text, List<String> words) {
+        BreakIterator wb = BreakIterator.getWordInstance();
+        wb.setText(text);
+        int start = wb.first();
+        for (int end = wb.next(); end
+                != BreakIterator.DONE; start = end, end = wb.next()) {
+            String word = text.substring(start, end).toLowerCase();
+            word = LEADING_PUNCTUATION.matcher(word).replaceAll("");
+            word = TRAILING_PUNCTUATION.matcher(word).replaceAll("");
+            if (!word.equals(" ") && !word.equals("")) {
+                words.add(word);
+            }
+        }
+    }
+
+    /**
+     * Receives the words of a text as ranges of its chars.
+     */
+    @FunctionalInterface
+    private interface WordRanges {
+
+        void accept(int start, int end);
+
+    }
+
+}
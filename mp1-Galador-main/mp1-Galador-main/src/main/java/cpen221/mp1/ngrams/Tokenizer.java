@@ -0,0 +1,65 @@
+package cpen221.mp1.ngrams;
+
+/**
+ * Splits text into the words that n-grams are made of.
+ *
+ * @author W1nst0n03
+ */
+public interface Tokenizer {
+
+    /**
+     * Splits text into words.
+     *
+     * @param text the text to split; is not null
+     * @return the words of the text, in order
+     */
+    String[] tokenize(String text);
+
+    /**
+     * Splits part of an array of chars into words, as tokenize would split
+     * a String of the same chars, and passes each word to a consumer.
+     * The words are passed in the case they have in the text; lower-casing
+     * them gives the words of tokenize.
+     *
+     * @param text the chars to split; is not null and is not changed
+     * @param start the index of the first char to split
+     * @param end the index after the last char to split
+     * @param words the consumer to pass the words to, in order
+     */
+    default void tokenize(char[] text, int start, int end,
+                          WordConsumer words) {
+        for (String word : tokenize(new String(text, start, end - start))) {
+            words.accept(word.toCharArray(), 0, word.length());
+        }
+    }
+
+    /**
+     * Returns the tokenizer used by NGrams, reviews and sentiment analysis
+     * unless another one is given. It splits text at word boundaries,
+     * lower-cases the words and strips punctuation from their ends.
+     *
+     * @return the standard tokenizer
+     */
+    static Tokenizer standard() {
+        return StandardTokenizer.INSTANCE;
+    }
+
+    /**
+     * Receives the words of a text one at a time.
+     */
+    @FunctionalInterface
+    interface WordConsumer {
+
+        /**
+         * Receives one word, as a range of an array of chars that is only
+         * valid until this returns.
+         *
+         * @param chars the array that holds the word
+         * @param start the index of the first char of the word
+         * @param end the index after the last char of the word
+         */
+        void accept(char[] chars, int start, int end);
+
+    }
+
+}
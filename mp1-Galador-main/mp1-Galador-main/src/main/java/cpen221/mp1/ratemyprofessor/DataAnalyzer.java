@@ -1,12 +1,17 @@
 package cpen221.mp1.ratemyprofessor;
 
-import cpen221.mp1.autocompletion.gui.In;
 import cpen221.mp1.datawrapper.DataWrapper;
 import cpen221.mp1.ngrams.NGrams;
+import cpen221.mp1.ngrams.Tokenizer;
 
 import java.io.FileNotFoundException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -16,10 +21,18 @@ import java.util.Map;
  */
 public class DataAnalyzer {
 
-    private final ArrayList<Review> reviewList = new ArrayList<>();
+    private final ReviewStore reviews = new ReviewStore();
+    private final NGramIndex index = new NGramIndex();
+    private final SimilarityIndex similarities;
+    private final int removedDuplicates;
 
     /**
      * Create an object to analyze a RateMyProfessor dataset.
+     * The file is parsed in parallel, reviews are stored column by column
+     * and Review objects are only created when they are asked for. Every
+     * n-gram of up to three words is indexed while loading, so histogram
+     * queries do not need to scan the reviews, and so is every word with
+     * its TF-IDF weight, for similarity searches.
      *
      * @param dataSourceFileName the name of the file that contains the data
      * @throws FileNotFoundException if the file does not exist or cannot be
@@ -27,27 +40,44 @@ public class DataAnalyzer {
      */
     public DataAnalyzer(String dataSourceFileName)
             throws FileNotFoundException {
-        In input = new In(dataSourceFileName);
-        String ignoreHeader = input.readLine();
-        for (String line = input.readLine(); line != null; line = input.readLine()) {
-            String currentReview = line;
-            String[] x = currentReview.split(",", 3);
-            float tempScore = Float.parseFloat(x[0]);
-            char tempGender = x[1].charAt(0);
-            String tempReview = x[2];
-            reviewList.add(new Review(tempScore, tempGender, tempReview));
-        }
+        this(dataSourceFileName, false);
+    }
+
+    /**
+     * Create an object to analyze a RateMyProfessor dataset, optionally
+     * leaving out reviews that nearly duplicate an earlier review.
+     * Near-duplicates are found with MinHash signatures of each review's
+     * three-word shingles and locality-sensitive hashing, so each review is
+     * only compared with the few earlier reviews that share a band of its
+     * signature. A review is left out if the estimated Jaccard similarity
+     * of its shingles and those of a kept review is at least 0.8, and it is
+     * then not in any histogram, search or review list.
+     *
+     * @param dataSourceFileName the name of the file that contains the data
+     * @param removeNearDuplicates true to leave out near-duplicate reviews
+     * @throws FileNotFoundException if the file does not exist or cannot be
+     *                               found
+     */
+    public DataAnalyzer(String dataSourceFileName,
+                        boolean removeNearDuplicates)
+            throws FileNotFoundException {
+        NearDuplicateFilter duplicates =
+                removeNearDuplicates ? new NearDuplicateFilter() : null;
+        ReviewLoader.load(dataSourceFileName, reviews, index, duplicates);
+        this.similarities = new SimilarityIndex(index, reviews.size());
+        this.removedDuplicates =
+                duplicates == null ? 0 : duplicates.removedCount();
     }
 
     /**
      * Return an n-grams object of a Review given the index of that review.
      *
      * @param reviewIndex the index of the review to be returned;
-     *                    is between 0 and reviewList.length
+     *                    is between 0 and getReviewCount()
      * @return an n-grams object of the review at the given index
      */
     public NGrams returnReviewGram(int reviewIndex) {
-        return new NGrams(reviewList.get(reviewIndex).getReviewText());
+        return new NGrams(reviews.getReview(reviewIndex).getReviewText());
     }
 
     /**
@@ -56,7 +86,107 @@ public class DataAnalyzer {
      * @return An ArrayList of the Reviews held by the DataAnalyzer object
      */
     public ArrayList<Review> getReviewList() {
-        return new ArrayList<>(reviewList);
+        ArrayList<Review> reviewList = new ArrayList<>(reviews.size());
+        for (int i = 0; i < reviews.size(); i++) {
+            reviewList.add(reviews.getReview(i));
+        }
+        return reviewList;
+    }
+
+    /**
+     * Return the number of reviews held by the DataAnalyzer.
+     *
+     * @return the number of reviews in the dataset
+     */
+    public int getReviewCount() {
+        return reviews.size();
+    }
+
+    /**
+     * Return the number of near-duplicate reviews left out while loading.
+     *
+     * @return the number of reviews in the file that were not kept
+     */
+    public int getRemovedDuplicateCount() {
+        return removedDuplicates;
+    }
+
+    /**
+     * Return the score of the review at the given index, without creating
+     * a Review object.
+     *
+     * @param reviewIndex the index of the review;
+     *                    is at least 0 and less than getReviewCount()
+     * @return the score of the review
+     */
+    public float getScore(int reviewIndex) {
+        return reviews.getScore(reviewIndex);
+    }
+
+    /**
+     * Obtain how often every word occurs in the reviews of each score.
+     * The counts are added up from the word counts made while loading, so
+     * no review is tokenized again.
+     *
+     * @param scores the scores to group reviews by, in increasing order;
+     *               contains the score of every review
+     * @return a map from every word of the reviews to its total count in
+     *         the reviews of each score, indexed like scores
+     */
+    public Map<String, long[]> getWordCountsByScore(float[] scores) {
+        int[] groupOfReview = new int[reviews.size()];
+        for (int i = 0; i < groupOfReview.length; i++) {
+            groupOfReview[i] = Arrays.binarySearch(scores,
+                    reviews.getScore(i));
+        }
+        return similarities.countByGroup(groupOfReview, scores.length);
+    }
+
+    /**
+     * Return a Review object for the review at the given index.
+     *
+     * @param reviewIndex the index of the review to be returned;
+     *                    is between 0 and getReviewCount()
+     * @return the review at the given index
+     */
+    public Review getReview(int reviewIndex) {
+        return reviews.getReview(reviewIndex);
+    }
+
+    /**
+     * Find the reviews most similar to a text, by the cosine similarity of
+     * their TF-IDF word vectors. Only the reviews that share a word with
+     * the text are scored.
+     *
+     * @param text the text to compare the reviews with; is not null
+     * @param limit the largest number of reviews to return
+     * @return the indices of the most similar reviews, most similar first;
+     *         reviews that share no word with the text are not included
+     */
+    public int[] findSimilarReviews(String text, int limit) {
+        List<Map<String, Long>> grams =
+                new Review(0, ' ', text).getReview().getAllNGrams();
+        return grams.isEmpty() ? new int[0]
+                : similarities.topK(grams.get(0), limit);
+    }
+
+    /**
+     * Find the reviews most similar to a review of the data set, as
+     * findSimilarReviews(String, int) would for its text.
+     *
+     * @param reviewIndex the index of the review to compare with;
+     *                    is at least 0 and less than getReviewCount()
+     * @param limit the largest number of reviews to return
+     * @return the indices of the most similar other reviews, most similar
+     *         first
+     */
+    public int[] findSimilarReviews(int reviewIndex, int limit) {
+        int[] similar = findSimilarReviews(reviews.getText(reviewIndex),
+                limit == Integer.MAX_VALUE ? limit : limit + 1);
+        int[] others = Arrays.stream(similar)
+                .filter(other -> other != reviewIndex).toArray();
+        return Arrays.copyOf(others, Math.min(others.length,
+                Math.max(limit, 0)));
     }
 
     /**
@@ -72,61 +202,87 @@ public class DataAnalyzer {
      * men-high (MH), and women-high (WH)
      */
     public Map<String, Long> getHistogram(String query) {
-        Map<String, Long> histogram = new HashMap<>();
-        int queryLength = query.split(" ").length;
-        histogram.put("ML", 0L);
-        histogram.put("WL", 0L);
-        histogram.put("MM", 0L);
-        histogram.put("WM", 0L);
-        histogram.put("MH", 0L);
-        histogram.put("WH", 0L);
-        for (Review review: reviewList) {
-            if (new NGrams(review.getReviewText()).
-                    getAllNGrams().get(queryLength - 1).containsKey(query)) {
-                if (review.getGender() == 'M') {
-                    if (review.getScore() <= 2) {
-                        histogram.replace("ML",
-                                histogram.get("ML")
-                                        + new NGrams(review.getReviewText()).
-                                        getAllNGrams().get(queryLength - 1).
-                                        get(query));
-                    } else if (review.getScore() <= 3.5) {
-                        histogram.replace("MM",
-                                histogram.get("MM")
-                                        + new NGrams(review.getReviewText()).
-                                        getAllNGrams().get(queryLength - 1).
-                                        get(query));
-                    } else {
-                        histogram.replace("MH",
-                                histogram.get("MH")
-                                        + new NGrams(review.getReviewText()).
-                                        getAllNGrams().get(queryLength - 1).
-                                        get(query));
-                    }
-                } else if (review.getGender() == 'W') {
-                    if (review.getScore() <= 2) {
-                        histogram.replace("WL",
-                                histogram.get("WL")
-                                        + new NGrams(review.getReviewText()).
-                                        getAllNGrams().get(queryLength - 1).
-                                        get(query));
-                    } else if (review.getScore() <= 3.5) {
-                        histogram.replace("WM",
-                                histogram.get("WM")
-                                        + new NGrams(review.getReviewText()).
-                                        getAllNGrams().get(queryLength - 1).
-                                        get(query));
-                    } else {
-                        histogram.replace("WH",
-                                histogram.get("WH")
-                                        + new NGrams(review.getReviewText()).
-                                        getAllNGrams().get(queryLength - 1).
-                                        get(query));
-                    }
-                }
+        return getHistograms(List.of(query)).get(query);
+    }
+
+    /**
+     * Obtain the histogram of every query in a collection, as getHistogram
+     * would. Queries of up to three words are looked up in the n-gram
+     * index. Longer queries are all counted together in one parallel pass
+     * over the reviews that contain the start of any of them.
+     *
+     * @param queries the search terms; is not null
+     * @return a map from each query to its histogram
+     */
+    public Map<String, Map<String, Long>> getHistograms(
+            Collection<String> queries) {
+        Map<String, long[]> counts = new HashMap<>();
+        List<String> longQueries = new ArrayList<>();
+        for (String query : new LinkedHashSet<>(queries)) {
+            if (query.split(" ").length <= NGramIndex.MAX_LENGTH) {
+                counts.put(query, index.getCategoryCounts(query));
+            } else {
+                longQueries.add(query);
+            }
+        }
+        if (!longQueries.isEmpty()) {
+            long[][] longCounts = countLongQueries(longQueries);
+            for (int i = 0; i < longQueries.size(); i++) {
+                counts.put(longQueries.get(i), longCounts[i]);
+            }
+        }
+        Map<String, Map<String, Long>> histograms = new HashMap<>();
+        for (Map.Entry<String, long[]> query : counts.entrySet()) {
+            Map<String, Long> histogram = new HashMap<>();
+            for (int i = 0; i < NGramIndex.CATEGORIES.length; i++) {
+                histogram.put(NGramIndex.CATEGORIES[i], query.getValue()[i]);
             }
+            histograms.put(query.getKey(), histogram);
         }
-        return histogram;
+        return histograms;
+    }
+
+    /**
+     * Counts queries that are longer than the indexed n-grams. Only the
+     * reviews that contain the first indexed n-gram of some query are
+     * searched, each once for all the queries, and the reviews are split
+     * between threads. Each thread tokenizes the stored text of its reviews
+     * in place and feeds the words straight to its own phrase counter.
+     *
+     * @param queries the search terms; each has more than
+     *                NGramIndex.MAX_LENGTH words
+     * @return the counts of each query, indexed like NGramIndex.CATEGORIES
+     */
+    private long[][] countLongQueries(List<String> queries) {
+        List<String[]> phrases = new ArrayList<>();
+        BitSet candidates = new BitSet(reviews.size());
+        for (String query : queries) {
+            String[] queryWords = query.split(" ");
+            phrases.add(queryWords);
+            String head = String.join(" ",
+                    Arrays.copyOf(queryWords, NGramIndex.MAX_LENGTH));
+            for (int reviewIndex : index.getReviews(head)) {
+                candidates.set(reviewIndex);
+            }
+        }
+        PhraseMatcher matcher = new PhraseMatcher(phrases);
+        Tokenizer tokenizer = Tokenizer.standard();
+        return candidates.stream().parallel().collect(
+                () -> matcher.newCounter(NGramIndex.CATEGORIES.length),
+                (counter, reviewIndex) -> {
+                    int bucket = NGramIndex.bucketOf(
+                            reviews.getGender(reviewIndex),
+                            reviews.getScore(reviewIndex));
+                    if (bucket < 0) {
+                        return;
+                    }
+                    reviews.forEachSentence(reviewIndex,
+                            (text, start, end) -> {
+                                counter.startSentence(bucket);
+                                tokenizer.tokenize(text, start, end, counter);
+                            });
+                },
+                PhraseMatcher.Counter::addAll).getCounts();
     }
 
 }
@@ -0,0 +1,208 @@
+package cpen221.mp1.ratemyprofessor;
+
+import cpen221.mp1.ngrams.Tokenizer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An inverted index from every n-gram of up to MAX_LENGTH words to the
+ * reviews it occurs in, with its total count in each histogram category.
+ * Words also keep their count in each review, which the similarity index
+ * and the word counts by score are built from.
+ *
+ * @author W1nst0n03
+ */
+final class NGramIndex {
+
+    /**
+     * The longest n-gram, in words, that is indexed.
+     */
+    static final int MAX_LENGTH = 3;
+
+    /**
+     * The histogram categories, in bucket order.
+     */
+    static final String[] CATEGORIES = {"ML", "MM", "MH", "WL", "WM", "WH"};
+
+    private static final long[] NO_COUNTS = new long[CATEGORIES.length];
+
+    private final Map<String, Postings> index = new HashMap<>();
+
+    /**
+     * Counts the n-grams of a review text that are indexed, splitting it
+     * into sentences and words as Review and NGrams do, but without
+     * building either of them.
+     * This does not touch the index, so it can run on any thread.
+     *
+     * @param text the text of the review; is not null
+     * @return a list with the i-th entry being all the (i+1)-grams of the
+     *         review and their counts, as NGrams.getAllNGrams returns them
+     */
+    static List<Map<String, Long>> countGrams(String text) {
+        List<Map<String, Long>> grams = new ArrayList<>();
+        for (String sentence : text.split("\\.")) {
+            String[] words = Tokenizer.standard().tokenize(sentence);
+            while (grams.size() < Math.min(words.length, MAX_LENGTH)) {
+                grams.add(new HashMap<>());
+            }
+            for (int start = 0; start < words.length; start++) {
+                String gram = words[start];
+                for (int n = 0; n < MAX_LENGTH && start + n < words.length;
+                     n++) {
+                    if (n > 0) {
+                        gram = gram + " " + words[start + n];
+                    }
+                    grams.get(n).merge(gram, 1L, Long::sum);
+                }
+            }
+        }
+        return grams;
+    }
+
+    /**
+     * Adds the n-grams of a review to the index.
+     * Reviews must be added in increasing order of reviewIndex.
+     *
+     * @param reviewIndex the position of the review in the data set
+     * @param gender the gender of the review
+     * @param score the score of the review
+     * @param grams the n-grams of the review, as returned by countGrams
+     */
+    void add(int reviewIndex, char gender, float score,
+             List<Map<String, Long>> grams) {
+        int bucket = bucketOf(gender, score);
+        for (int n = 0; n < MAX_LENGTH && n < grams.size(); n++) {
+            boolean word = n == 0;
+            for (Map.Entry<String, Long> gram : grams.get(n).entrySet()) {
+                index.computeIfAbsent(gram.getKey(), k -> new Postings(word))
+                        .add(reviewIndex, bucket, gram.getValue());
+            }
+        }
+    }
+
+    /**
+     * Returns the reviews every word occurs in and its count in each.
+     * The postings are trimmed to their size and then shared, not copied,
+     * so no review may be added afterwards.
+     *
+     * @return a map from every word to its postings
+     */
+    Map<String, WordPostings> getWordPostings() {
+        Map<String, WordPostings> words = new HashMap<>();
+        for (Map.Entry<String, Postings> gram : index.entrySet()) {
+            Postings postings = gram.getValue();
+            if (postings.counts != null) {
+                postings.trim();
+                words.put(gram.getKey(),
+                        new WordPostings(postings.reviews, postings.counts));
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Returns the total number of occurrences of an n-gram in each
+     * histogram category.
+     *
+     * @param query the n-gram to look up; has at most MAX_LENGTH words
+     * @return the counts of query, indexed like CATEGORIES
+     */
+    long[] getCategoryCounts(String query) {
+        Postings postings = index.get(query);
+        return postings == null ? NO_COUNTS.clone()
+                : postings.categoryCounts.clone();
+    }
+
+    /**
+     * Returns the indices of the reviews an n-gram occurs in.
+     *
+     * @param query the n-gram to look up; has at most MAX_LENGTH words
+     * @return the review indices in increasing order
+     */
+    int[] getReviews(String query) {
+        Postings postings = index.get(query);
+        return postings == null ? new int[0]
+                : Arrays.copyOf(postings.reviews, postings.size);
+    }
+
+    /**
+     * Returns the histogram category of a review.
+     *
+     * @param gender the gender of the review, 'M' or 'W'
+     * @param score the score of the review
+     * @return the index of the category in CATEGORIES, or -1 if the gender
+     *         is neither 'M' nor 'W'
+     */
+    static int bucketOf(char gender, float score) {
+        int band;
+        if (score <= 2) {
+            band = 0;
+        } else if (score <= 3.5) {
+            band = 1;
+        } else {
+            band = 2;
+        }
+        if (gender == 'M') {
+            return band;
+        } else if (gender == 'W') {
+            return 3 + band;
+        } else {
+            return -1;
+        }
+    }
+
+    /**
+     * The reviews a word occurs in, in increasing order, and its count in
+     * each of them.
+     *
+     * @param reviews the review indices
+     * @param counts the count of the word in each review
+     */
+    record WordPostings(int[] reviews, int[] counts) {
+    }
+
+    /**
+     * The reviews and counts of one n-gram.
+     */
+    private static final class Postings {
+
+        private int[] reviews = new int[1];
+        private int[] counts;
+        private int size;
+        private final long[] categoryCounts = new long[CATEGORIES.length];
+
+        Postings(boolean word) {
+            this.counts = word ? new int[1] : null;
+        }
+
+        void add(int reviewIndex, int bucket, long count) {
+            if (size == reviews.length) {
+                reviews = Arrays.copyOf(reviews, size * 2);
+                if (counts != null) {
+                    counts = Arrays.copyOf(counts, size * 2);
+                }
+            }
+            reviews[size] = reviewIndex;
+            if (counts != null) {
+                counts[size] = Math.toIntExact(count);
+            }
+            size++;
+            if (bucket >= 0) {
+                categoryCounts[bucket] += count;
+            }
+        }
+
+        void trim() {
+            if (reviews.length != size) {
+                reviews = Arrays.copyOf(reviews, size);
+                counts = Arrays.copyOf(counts, size);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,187 @@
+package cpen221.mp1.ratemyprofessor;
+
+import cpen221.mp1.ngrams.GramHash;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Finds reviews whose text nearly duplicates that of an earlier review.
+ * Each review is summarized by a MinHash signature of its word n-gram
+ * shingles, whose entries agree between two reviews with probability
+ * equal to the Jaccard similarity of their shingle sets. The signature is
+ * split into bands, and only earlier reviews that share a whole band with
+ * a review are compared with it, so each review is checked against a few
+ * candidates instead of every earlier review.
+ *
+ * @author W1nst0n03
+ */
+final class NearDuplicateFilter {
+
+    /**
+     * The number of bands of each signature.
+     */
+    static final int BANDS = 16;
+
+    /**
+     * The number of hash values in each band. With 16 bands of 4, reviews
+     * with a similarity of 0.8 become candidates with probability above
+     * 0.999, and reviews with a similarity of 0.3 with probability 0.12.
+     */
+    static final int ROWS = 4;
+
+    /**
+     * The smallest estimated Jaccard similarity of two near-duplicates.
+     */
+    static final double THRESHOLD = 0.8;
+
+    private static final int HASHES = BANDS * ROWS;
+    private static final long SEED = 0x5EED;
+    private static final long[] MULTIPLIERS = new long[HASHES];
+    private static final long[] INCREMENTS = new long[HASHES];
+
+    static {
+        Random random = new Random(SEED);
+        for (int i = 0; i < HASHES; i++) {
+            MULTIPLIERS[i] = random.nextLong() | 1L;
+            INCREMENTS[i] = random.nextLong();
+        }
+    }
+
+    private final List<Map<Long, Integer>> buckets = new ArrayList<>();
+    private int[] signatures = new int[HASHES * 16];
+    private int[] nextInBucket = new int[BANDS * 16];
+    private int kept = 0;
+    private int removed = 0;
+
+    /**
+     * Creates a filter that has seen no reviews.
+     */
+    NearDuplicateFilter() {
+        for (int band = 0; band < BANDS; band++) {
+            buckets.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * Computes the MinHash signature of a review.
+     * This does not touch the filter, so it can run on any thread.
+     *
+     * @param grams the n-grams of the review, as returned by
+     *              NGramIndex.countGrams
+     * @return the signature of the review's longest n-grams of up to
+     *         NGramIndex.MAX_LENGTH words, or null if it has no words
+     */
+    static int[] signature(List<Map<String, Long>> grams) {
+        int length = Math.min(grams.size(), NGramIndex.MAX_LENGTH);
+        while (length > 0 && grams.get(length - 1).isEmpty()) {
+            length--;
+        }
+        if (length == 0) {
+            return null;
+        }
+        int[] signature = new int[HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (String shingle : grams.get(length - 1).keySet()) {
+            long hash = GramHash.of(shingle);
+            for (int i = 0; i < HASHES; i++) {
+                int value = (int)
+                        ((MULTIPLIERS[i] * hash + INCREMENTS[i]) >>> 33);
+                if (value < signature[i]) {
+                    signature[i] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * Checks whether a review nearly duplicates one already kept, and keeps
+     * it if it does not. Reviews must be offered in the order they are
+     * loaded, so the first of a group of near-duplicates is the one kept.
+     *
+     * @param signature the signature of the review, or null if it has no
+     *                  words; reviews without words are always kept
+     * @return true if the review is a near-duplicate and was not kept
+     */
+    boolean isDuplicate(int[] signature) {
+        if (signature == null) {
+            return false;
+        }
+        long[] keys = new long[BANDS];
+        for (int band = 0; band < BANDS; band++) {
+            keys[band] = bandKey(signature, band);
+            Integer candidate = buckets.get(band).get(keys[band]);
+            for (int other = candidate == null ? -1 : candidate; other >= 0;
+                 other = nextInBucket[other * BANDS + band]) {
+                if (similarity(signature, other) >= THRESHOLD) {
+                    removed++;
+                    return true;
+                }
+            }
+        }
+        keep(signature, keys);
+        return false;
+    }
+
+    /**
+     * Returns the number of reviews found to be near-duplicates.
+     *
+     * @return the number of reviews that were not kept
+     */
+    int removedCount() {
+        return removed;
+    }
+
+    /**
+     * Stores the signature of a kept review and adds it to the front of
+     * its bucket in every band.
+     *
+     * @param signature the signature of the review
+     * @param keys the key of each band of the signature
+     */
+    private void keep(int[] signature, long[] keys) {
+        if ((kept + 1) * HASHES > signatures.length) {
+            signatures = Arrays.copyOf(signatures, signatures.length * 2);
+            nextInBucket = Arrays.copyOf(nextInBucket, nextInBucket.length * 2);
+        }
+        System.arraycopy(signature, 0, signatures, kept * HASHES, HASHES);
+        for (int band = 0; band < BANDS; band++) {
+            Integer previous = buckets.get(band).put(keys[band], kept);
+            nextInBucket[kept * BANDS + band] =
+                    previous == null ? -1 : previous;
+        }
+        kept++;
+    }
+
+    /**
+     * Estimates the Jaccard similarity of a review and a kept review.
+     *
+     * @param signature the signature of the review
+     * @param other the position of the kept review among those kept
+     * @return the fraction of their signatures that agree
+     */
+    private double similarity(int[] signature, int other) {
+        int agree = 0;
+        int start = other * HASHES;
+        for (int i = 0; i < HASHES; i++) {
+            if (signature[i] == signatures[start + i]) {
+                agree++;
+            }
+        }
+        return (double) agree / HASHES;
+    }
+
+    private static long bandKey(int[] signature, int band) {
+        long key = band;
+        for (int i = band * ROWS; i < (band + 1) * ROWS; i++) {
+            key = key * 0x9E3779B97F4A7C15L + signature[i];
+        }
+        return key;
+    }
+
+}
@@ -0,0 +1,233 @@
+package cpen221.mp1.ratemyprofessor;
+
+import cpen221.mp1.ngrams.Tokenizer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds every occurrence of a set of phrases in a sequence of words in one
+ * pass, with an Aho-Corasick automaton whose transitions are on words
+ * rather than characters. Words that are in no phrase send the automaton
+ * back to its start. Words are looked up straight from the chars of the
+ * text, so no String is built for them. A matcher is never changed after
+ * it is built, so it can be shared by any number of threads, each
+ * counting with its own Counter.
+ *
+ * @author W1nst0n03
+ */
+final class PhraseMatcher {
+
+    private static final int ROOT = 0;
+
+    private final Map<String, Integer> wordIds = new HashMap<>();
+    private final List<Map<Integer, Integer>> children = new ArrayList<>();
+    private final int[] fail;
+    private final int[][] matches;
+    private final String[] wordTable;
+    private final int[] idTable;
+    private final int phraseCount;
+
+    /**
+     * Builds a matcher for a list of phrases.
+     *
+     * @param phrases the words of each phrase; no phrase is empty
+     */
+    PhraseMatcher(List<String[]> phrases) {
+        this.phraseCount = phrases.size();
+        children.add(new HashMap<>());
+        List<List<Integer>> ends = new ArrayList<>();
+        ends.add(new ArrayList<>());
+        for (int phrase = 0; phrase < phrases.size(); phrase++) {
+            int node = ROOT;
+            for (String word : phrases.get(phrase)) {
+                int id = wordIds.computeIfAbsent(word, k -> wordIds.size());
+                Integer next = children.get(node).get(id);
+                if (next == null) {
+                    next = children.size();
+                    children.get(node).put(id, next);
+                    children.add(new HashMap<>());
+                    ends.add(new ArrayList<>());
+                }
+                node = next;
+            }
+            ends.get(node).add(phrase);
+        }
+
+        this.fail = new int[children.size()];
+        this.matches = new int[children.size()][];
+        matches[ROOT] = new int[0];
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int child : children.get(ROOT).values()) {
+            fail[child] = ROOT;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.remove();
+            int[] inherited = matches[fail[node]];
+            List<Integer> own = ends.get(node);
+            int[] all = new int[own.size() + inherited.length];
+            for (int i = 0; i < own.size(); i++) {
+                all[i] = own.get(i);
+            }
+            System.arraycopy(inherited, 0, all, own.size(), inherited.length);
+            matches[node] = all;
+            for (Map.Entry<Integer, Integer> child
+                    : children.get(node).entrySet()) {
+                fail[child.getValue()] = step(fail[node], child.getKey());
+                queue.add(child.getValue());
+            }
+        }
+
+        this.wordTable = new String[Integer.highestOneBit(
+                Math.max(1, wordIds.size()) * 4)];
+        this.idTable = new int[wordTable.length];
+        for (Map.Entry<String, Integer> word : wordIds.entrySet()) {
+            int mask = wordTable.length - 1;
+            int slot = word.getKey().hashCode() & mask;
+            while (wordTable[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            wordTable[slot] = word.getKey();
+            idTable[slot] = word.getValue();
+        }
+    }
+
+    /**
+     * Creates an empty counter of the phrases of this matcher.
+     *
+     * @param buckets the number of columns of counts
+     * @return a counter whose counts are all 0
+     */
+    Counter newCounter(int buckets) {
+        return new Counter(buckets);
+    }
+
+    /**
+     * Looks up a word by its chars, lower-casing them.
+     *
+     * @param chars the array that holds the word
+     * @param start the index of the first char of the word
+     * @param end the index after the last char of the word
+     * @return the id of the lower-cased word, or -1 if it is in no phrase
+     */
+    private int wordId(char[] chars, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + Character.toLowerCase(chars[i]);
+        }
+        int mask = wordTable.length - 1;
+        for (int slot = hash & mask; wordTable[slot] != null;
+             slot = (slot + 1) & mask) {
+            if (matches(wordTable[slot], chars, start, end)) {
+                return idTable[slot];
+            }
+        }
+        return -1;
+    }
+
+    private static boolean matches(String word, char[] chars, int start,
+                                   int end) {
+        if (word.length() != end - start) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (word.charAt(i - start) != Character.toLowerCase(chars[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Follows the transition on a word, falling back along the failure
+     * links until a node has one.
+     *
+     * @param node the node to start from
+     * @param id the id of the word
+     * @return the node reached
+     */
+    private int step(int node, int id) {
+        while (true) {
+            Integer next = children.get(node).get(id);
+            if (next != null) {
+                return next;
+            }
+            if (node == ROOT) {
+                return ROOT;
+            }
+            node = fail[node];
+        }
+    }
+
+    /**
+     * Counts the occurrences of every phrase in sentences whose words are
+     * given one at a time. A counter is used by a single thread.
+     */
+    final class Counter implements Tokenizer.WordConsumer {
+
+        private final long[][] counts;
+        private int node = ROOT;
+        private int bucket = 0;
+
+        private Counter(int buckets) {
+            this.counts = new long[phraseCount][buckets];
+        }
+
+        /**
+         * Starts a new sentence, so no phrase is matched across the end of
+         * the last one.
+         *
+         * @param bucket the column of counts to add the sentence's phrases
+         *               to
+         */
+        void startSentence(int bucket) {
+            this.node = ROOT;
+            this.bucket = bucket;
+        }
+
+        /**
+         * Counts the phrases that end at the next word of the sentence.
+         *
+         * @param chars the array that holds the word
+         * @param start the index of the first char of the word
+         * @param end the index after the last char of the word
+         */
+        @Override
+        public void accept(char[] chars, int start, int end) {
+            int id = wordId(chars, start, end);
+            node = id < 0 ? ROOT : step(node, id);
+            for (int phrase : matches[node]) {
+                counts[phrase][bucket]++;
+            }
+        }
+
+        /**
+         * Adds the counts of another counter to these.
+         *
+         * @param other a counter of the same matcher and number of buckets
+         */
+        void addAll(Counter other) {
+            for (int phrase = 0; phrase < counts.length; phrase++) {
+                for (int b = 0; b < counts[phrase].length; b++) {
+                    counts[phrase][b] += other.counts[phrase][b];
+                }
+            }
+        }
+
+        /**
+         * Returns the counts.
+         *
+         * @return the counts, indexed by phrase then bucket
+         */
+        long[][] getCounts() {
+            return counts;
+        }
+
+    }
+
+}
@@ -13,7 +13,7 @@ public class Review {
 
     private final float score;
     private final char gender;
-    private final NGrams review;
+    private volatile NGrams review;
     private final String[] reviewText;
 
     /**
@@ -29,16 +29,27 @@ public class Review {
         this.score = score;
         this.gender = gender;
         this.reviewText = review.split("\\.");
-        this.review = new NGrams(reviewText, 1);
     }
 
     /**
      * Returns the n-grams object of the review.
+     * The unigrams are counted the first time they are asked for, once even
+     * if several threads ask at the same time.
      *
      * @return the n-grams object of the review
      */
     public NGrams getReview() {
-        return this.review;
+        NGrams counted = this.review;
+        if (counted == null) {
+            synchronized (this) {
+                counted = this.review;
+                if (counted == null) {
+                    counted = new NGrams(reviewText, 1);
+                    this.review = counted;
+                }
+            }
+        }
+        return counted;
     }
 
     /**
@@ -0,0 +1,410 @@
+package cpen221.mp1.ratemyprofessor;
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Loads a RateMyProfessor CSV file of "rating,gender,text" records.
+ * The file is split into chunks that end on record boundaries, and the
+ * chunks are memory-mapped and parsed, and their reviews' n-grams counted,
+ * on a pool of threads. Chunks are added to the store and indexes in file
+ * order, so the result is the same as loading the file line by line.
+ * Any field may be quoted, in which case it may contain commas, newlines
+ * and doubled quotes. When near-duplicates are removed, the reviews'
+ * MinHash signatures are computed on the pool too, and each review is
+ * checked against the ones kept before it as chunks are added.
+ *
+ * @author W1nst0n03
+ */
+final class ReviewLoader {
+
+    private static final int CHUNK_SIZE = 1 << 22;
+    private static final int SCAN_BUFFER_SIZE = 1 << 16;
+    private static final int FIELDS = 3;
+    private static final int MAX_FAST_CHARS = 9;
+    private static final long MAX_EXACT_MANTISSA = 1L << 24;
+    private static final float[] POWERS_OF_TEN =
+            {1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f};
+
+    private ReviewLoader() {
+    }
+
+    /**
+     * Loads every review of a file, after its header line.
+     *
+     * @param fileName the name of the file that contains the data
+     * @param reviews the store to add the reviews to; is not null
+     * @param index the index to add the reviews' n-grams to; is not null
+     * @param duplicates the filter that near-duplicate reviews are left out
+     *                   by, or null to keep every review
+     * @throws FileNotFoundException if the file does not exist or cannot be
+     *                               opened
+     */
+    static void load(String fileName, ReviewStore reviews, NGramIndex index,
+                     NearDuplicateFilter duplicates)
+            throws FileNotFoundException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try (FileChannel channel = new FileInputStream(fileName).getChannel()) {
+            RecordScanner scanner = new RecordScanner(channel);
+            Deque<Future<Chunk>> pending = new ArrayDeque<>();
+            long start = scanner.nextBoundary(0);
+            while (start < channel.size()) {
+                long chunkStart = start;
+                long chunkEnd = scanner.nextBoundary(start + CHUNK_SIZE);
+                pending.add(pool.submit(() -> parseChunk(channel, chunkStart,
+                        chunkEnd, duplicates != null)));
+                if (pending.size() > 2 * threads) {
+                    pending.remove().get().addTo(reviews, index, duplicates);
+                }
+                start = chunkEnd;
+            }
+            while (!pending.isEmpty()) {
+                pending.remove().get().addTo(reviews, index, duplicates);
+            }
+        } catch (FileNotFoundException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Parses the records in part of a file and counts their n-grams.
+     *
+     * @param channel the file
+     * @param start the offset of the first record of the chunk
+     * @param end the offset just past the last record of the chunk
+     * @param signed true if the reviews' MinHash signatures are needed
+     * @return the parsed reviews of the chunk
+     * @throws IOException if the file cannot be read
+     */
+    private static Chunk parseChunk(FileChannel channel, long start, long end,
+                                    boolean signed) throws IOException {
+        MappedByteBuffer buffer =
+                channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        Chunk chunk = new Chunk(signed);
+        FieldReader reader = new FieldReader(buffer);
+        while (reader.hasMore()) {
+            if (reader.skipBlankLine()) {
+                continue;
+            }
+            readInnerField(reader);
+            float score = reader.parseFloat();
+            readInnerField(reader);
+            char gender = reader.firstChar();
+            reader.readField(true);
+            String text = reader.decode();
+            chunk.add(score, gender, text);
+        }
+        return chunk;
+    }
+
+    /**
+     * Reads a field that is followed by another field of the same record.
+     *
+     * @param reader the reader positioned at the start of the field
+     * @throws IllegalArgumentException if the record ends after the field
+     */
+    private static void readInnerField(FieldReader reader) {
+        if (!reader.readField(false)) {
+            throw new IllegalArgumentException("Review record has fewer than "
+                    + FIELDS + " fields: " + reader.decode());
+        }
+    }
+
+    /**
+     * The parsed reviews of one chunk, with their n-gram counts and, if
+     * asked for, their MinHash signatures.
+     */
+    private static final class Chunk {
+
+        private float[] scores = new float[64];
+        private char[] genders = new char[64];
+        private final List<String> texts = new ArrayList<>();
+        private final List<List<Map<String, Long>>> grams = new ArrayList<>();
+        private final List<int[]> signatures = new ArrayList<>();
+        private final boolean signed;
+
+        Chunk(boolean signed) {
+            this.signed = signed;
+        }
+
+        void add(float score, char gender, String text) {
+            int size = texts.size();
+            if (size == scores.length) {
+                scores = Arrays.copyOf(scores, size * 2);
+                genders = Arrays.copyOf(genders, size * 2);
+            }
+            scores[size] = score;
+            genders[size] = gender;
+            texts.add(text);
+            List<Map<String, Long>> reviewGrams = NGramIndex.countGrams(text);
+            grams.add(reviewGrams);
+            signatures.add(signed
+                    ? NearDuplicateFilter.signature(reviewGrams) : null);
+        }
+
+        /**
+         * Adds the reviews that are not near-duplicates to the store and the
+         * index, releasing each review's counts once they are added.
+         *
+         * @param reviews the store to add the reviews to
+         * @param index the index to add the reviews' n-grams to
+         * @param duplicates the filter that near-duplicate reviews are left
+         *                   out by, or null to keep every review
+         */
+        void addTo(ReviewStore reviews, NGramIndex index,
+                   NearDuplicateFilter duplicates) {
+            for (int i = 0; i < texts.size(); i++) {
+                List<Map<String, Long>> reviewGrams = grams.set(i, null);
+                int[] signature = signatures.set(i, null);
+                String text = texts.set(i, null);
+                if (duplicates != null && duplicates.isDuplicate(signature)) {
+                    continue;
+                }
+                index.add(reviews.size(), genders[i], scores[i], reviewGrams);
+                reviews.add(scores[i], genders[i], text);
+            }
+        }
+
+    }
+
+    /**
+     * Reads the fields of the records in a buffer, one at a time, into a
+     * reusable byte array.
+     */
+    private static final class FieldReader {
+
+        private final ByteBuffer buffer;
+        private byte[] field = new byte[256];
+        private int length;
+
+        FieldReader(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        boolean hasMore() {
+            return buffer.hasRemaining();
+        }
+
+        /**
+         * Skips an empty line, if the buffer is at one.
+         *
+         * @return true if a line was skipped
+         */
+        boolean skipBlankLine() {
+            int position = buffer.position();
+            byte first = buffer.get(position);
+            if (first == '\n') {
+                buffer.position(position + 1);
+                return true;
+            }
+            if (first == '\r' && position + 1 < buffer.limit()
+                    && buffer.get(position + 1) == '\n') {
+                buffer.position(position + 2);
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Reads the next field of the record, consuming its delimiter.
+         *
+         * @param last true if this is the last field of the record, which
+         *             ends only at a newline
+         * @return true if the field ended at a comma, and false if it ended
+         *         the record
+         */
+        boolean readField(boolean last) {
+            length = 0;
+            boolean quoted = false;
+            boolean atStart = true;
+            boolean comma = false;
+            while (buffer.hasRemaining()) {
+                byte b = buffer.get();
+                if (quoted) {
+                    if (b != '"') {
+                        append(b);
+                    } else if (buffer.hasRemaining()
+                            && buffer.get(buffer.position()) == '"') {
+                        append(buffer.get());
+                    } else {
+                        quoted = false;
+                    }
+                } else if (b == '"' && atStart) {
+                    quoted = true;
+                } else if (b == '\n') {
+                    break;
+                } else if (b == ',' && !last) {
+                    comma = true;
+                    break;
+                } else {
+                    append(b);
+                }
+                atStart = false;
+            }
+            if (length > 0 && field[length - 1] == '\r') {
+                length--;
+            }
+            return comma;
+        }
+
+        /**
+         * Parses the field as a float, as Float.parseFloat would.
+         * A plain decimal whose digits are exactly a float is divided by a
+         * power of ten that is also exactly a float, so the division rounds
+         * once, to the same float as Float.parseFloat. Other fields are
+         * parsed by Float.parseFloat.
+         *
+         * @return the value of the field
+         */
+        float parseFloat() {
+            long mantissa = 0;
+            int decimals = -1;
+            int i = length > 0 && field[0] == '-' ? 1 : 0;
+            boolean simple = i < length && length - i <= MAX_FAST_CHARS;
+            boolean digits = false;
+            for (; simple && i < length; i++) {
+                byte b = field[i];
+                if (b >= '0' && b <= '9') {
+                    digits = true;
+                    mantissa = mantissa * 10 + (b - '0');
+                    if (decimals >= 0) {
+                        decimals++;
+                    }
+                } else if (b == '.' && decimals < 0) {
+                    decimals = 0;
+                } else {
+                    simple = false;
+                }
+            }
+            if (!simple || !digits || mantissa > MAX_EXACT_MANTISSA) {
+                return Float.parseFloat(decode());
+            }
+            float value = mantissa;
+            if (decimals > 0) {
+                value /= POWERS_OF_TEN[decimals];
+            }
+            return field[0] == '-' ? -value : value;
+        }
+
+        char firstChar() {
+            if (length > 0 && field[0] >= 0) {
+                return (char) field[0];
+            }
+            return decode().charAt(0);
+        }
+
+        String decode() {
+            return new String(field, 0, length, StandardCharsets.UTF_8);
+        }
+
+        private void append(byte b) {
+            if (length == field.length) {
+                field = Arrays.copyOf(field, length * 2);
+            }
+            field[length++] = b;
+        }
+
+    }
+
+    /**
+     * Scans a file from its start to find where records end, following the
+     * same quoting rules as FieldReader.
+     */
+    private static final class RecordScanner {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer =
+                ByteBuffer.allocateDirect(SCAN_BUFFER_SIZE);
+        private long position = 0;
+        private int field = 0;
+        private boolean atStart = true;
+        private boolean quoted = false;
+        private boolean justClosed = false;
+
+        RecordScanner(FileChannel channel) {
+            this.channel = channel;
+            buffer.limit(0);
+        }
+
+        /**
+         * Finds the end of the first record that ends at or after an offset.
+         * Offsets must be asked for in increasing order.
+         *
+         * @param target the offset to start looking from
+         * @return the offset just past the end of the record, or the size of
+         *         the file if no record ends after target
+         * @throws IOException if the file cannot be read
+         */
+        long nextBoundary(long target) throws IOException {
+            while (true) {
+                if (!buffer.hasRemaining()) {
+                    buffer.clear();
+                    if (channel.read(buffer, position) <= 0) {
+                        return position;
+                    }
+                    buffer.flip();
+                }
+                byte b = buffer.get();
+                position++;
+                if (endsRecord(b) && position > target) {
+                    return position;
+                }
+            }
+        }
+
+        private boolean endsRecord(byte b) {
+            if (quoted) {
+                if (b == '"') {
+                    quoted = false;
+                    justClosed = true;
+                }
+                return false;
+            }
+            boolean reopen = b == '"' && (atStart || justClosed);
+            atStart = false;
+            justClosed = false;
+            if (reopen) {
+                quoted = true;
+            } else if (b == '\n') {
+                field = 0;
+                atStart = true;
+                return true;
+            } else if (b == ',' && field < FIELDS - 1) {
+                field++;
+                atStart = true;
+            }
+            return false;
+        }
+
+    }
+
+}
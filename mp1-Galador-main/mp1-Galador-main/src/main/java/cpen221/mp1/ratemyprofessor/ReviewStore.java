@@ -0,0 +1,150 @@
+package cpen221.mp1.ratemyprofessor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Stores a data set of reviews column by column: the scores and genders in
+ * primitive arrays and the review texts packed into shared pages of chars.
+ * Review objects are only created when a review is asked for.
+ *
+ * @author W1nst0n03
+ */
+final class ReviewStore {
+
+    private static final int PAGE_SIZE = 1 << 20;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private float[] scores = new float[INITIAL_CAPACITY];
+    private char[] genders = new char[INITIAL_CAPACITY];
+    private long[] textStarts = new long[INITIAL_CAPACITY];
+    private int[] textLengths = new int[INITIAL_CAPACITY];
+    private final List<char[]> pages = new ArrayList<>();
+    private int pageUsed = 0;
+    private int size = 0;
+
+    /**
+     * Adds a review to the end of the store.
+     *
+     * @param score the score of the review
+     * @param gender the gender of the subject of the review;
+     *               'M' for man and 'W' for woman
+     * @param text the review text; is not null
+     */
+    void add(float score, char gender, String text) {
+        if (size == scores.length) {
+            int capacity = size * 2;
+            scores = Arrays.copyOf(scores, capacity);
+            genders = Arrays.copyOf(genders, capacity);
+            textStarts = Arrays.copyOf(textStarts, capacity);
+            textLengths = Arrays.copyOf(textLengths, capacity);
+        }
+        int length = text.length();
+        if (pages.isEmpty()
+                || pageUsed + length > pages.get(pages.size() - 1).length) {
+            pages.add(new char[Math.max(PAGE_SIZE, length)]);
+            pageUsed = 0;
+        }
+        text.getChars(0, length, pages.get(pages.size() - 1), pageUsed);
+        scores[size] = score;
+        genders[size] = gender;
+        textStarts[size] = ((long) (pages.size() - 1) << 32) | pageUsed;
+        textLengths[size] = length;
+        pageUsed += length;
+        size++;
+    }
+
+    /**
+     * Returns the number of reviews in the store.
+     *
+     * @return the number of reviews in the store
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the score of a review.
+     *
+     * @param reviewIndex the index of the review; is between 0 and size()
+     * @return the score of the review
+     */
+    float getScore(int reviewIndex) {
+        return scores[reviewIndex];
+    }
+
+    /**
+     * Returns the gender of a review.
+     *
+     * @param reviewIndex the index of the review; is between 0 and size()
+     * @return 'M' for man and 'W' for woman
+     */
+    char getGender(int reviewIndex) {
+        return genders[reviewIndex];
+    }
+
+    /**
+     * Returns the text of a review.
+     *
+     * @param reviewIndex the index of the review; is between 0 and size()
+     * @return the review text
+     */
+    String getText(int reviewIndex) {
+        long start = textStarts[reviewIndex];
+        return new String(pages.get((int) (start >>> 32)), (int) start,
+                textLengths[reviewIndex]);
+    }
+
+    /**
+     * Passes each sentence of the text of a review to a consumer, as a
+     * range of the stored chars, so the text is never copied. Sentences
+     * are split at every '.', as in Review.
+     *
+     * @param reviewIndex the index of the review; is between 0 and size()
+     * @param sentences the consumer to pass the sentences to, in order
+     */
+    void forEachSentence(int reviewIndex, SentenceConsumer sentences) {
+        long start = textStarts[reviewIndex];
+        char[] page = pages.get((int) (start >>> 32));
+        int end = (int) start + textLengths[reviewIndex];
+        int from = (int) start;
+        for (int i = from; i < end; i++) {
+            if (page[i] == '.') {
+                sentences.accept(page, from, i);
+                from = i + 1;
+            }
+        }
+        sentences.accept(page, from, end);
+    }
+
+    /**
+     * Creates a Review object for a review.
+     *
+     * @param reviewIndex the index of the review; is between 0 and size()
+     * @return a new Review equal to the review that was added
+     */
+    Review getReview(int reviewIndex) {
+        return new Review(getScore(reviewIndex), getGender(reviewIndex),
+                getText(reviewIndex));
+    }
+
+    /**
+     * Receives the sentences of a review one at a time.
+     */
+    @FunctionalInterface
+    interface SentenceConsumer {
+
+        /**
+         * Receives one sentence, as a range of an array of chars that must
+         * not be changed.
+         *
+         * @param chars the array that holds the sentence
+         * @param start the index of the first char of the sentence
+         * @param end the index after the last char of the sentence
+         */
+        void accept(char[] chars, int start, int end);
+
+    }
+
+}
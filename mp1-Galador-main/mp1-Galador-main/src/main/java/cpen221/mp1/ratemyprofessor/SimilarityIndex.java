@@ -0,0 +1,282 @@
+package cpen221.mp1.ratemyprofessor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * An inverted index from every word to the reviews it occurs in, with
+ * TF-IDF weights, for finding the reviews most similar to a text.
+ * A review's weight for a word is (1 + ln tf) * ln(N / df), and each
+ * review's weights are divided by their Euclidean norm, so the score of a
+ * review is the cosine similarity of its vector and the query's.
+ * The top k reviews are found with MaxScore: each word's largest weight
+ * bounds what it can add to a score, so once k reviews are found, reviews
+ * that only contain the words with the smallest bounds are skipped, and
+ * only the postings of the query's words are read.
+ * The reviews and counts of each word are those of the n-gram index,
+ * shared rather than copied; only the weights are stored here.
+ *
+ * @author W1nst0n03
+ */
+final class SimilarityIndex {
+
+    private final Map<String, Postings> index = new HashMap<>();
+
+    /**
+     * Computes the weights of every review from the words of an n-gram
+     * index that every review has been added to.
+     *
+     * @param words the index of the reviews' n-grams; is not null, and no
+     *              review is added to it afterwards
+     * @param reviewCount the number of reviews in the data set
+     */
+    SimilarityIndex(NGramIndex words, int reviewCount) {
+        for (Map.Entry<String, NGramIndex.WordPostings> word
+                : words.getWordPostings().entrySet()) {
+            index.put(word.getKey(), new Postings(word.getValue()));
+        }
+        double[] squaredNorms = new double[reviewCount];
+        for (Postings postings : index.values()) {
+            postings.idf = Math.log((double) reviewCount / postings.size);
+            for (int i = 0; i < postings.size; i++) {
+                double weight = tfWeight(postings.counts[i]) * postings.idf;
+                squaredNorms[postings.reviews[i]] += weight * weight;
+            }
+        }
+        for (Postings postings : index.values()) {
+            float maxWeight = 0;
+            for (int i = 0; i < postings.size; i++) {
+                double norm = Math.sqrt(squaredNorms[postings.reviews[i]]);
+                float weight = norm == 0 ? 0 : (float)
+                        (tfWeight(postings.counts[i]) * postings.idf / norm);
+                postings.weights[i] = weight;
+                maxWeight = Math.max(maxWeight, weight);
+            }
+            postings.maxWeight = maxWeight;
+        }
+    }
+
+    /**
+     * Adds up how often every word occurs in each group of reviews.
+     *
+     * @param groupOfReview the group of each review, indexed by review
+     * @param groups the number of groups; every group is below it
+     * @return a map from every word to its total count in each group
+     */
+    Map<String, long[]> countByGroup(int[] groupOfReview, int groups) {
+        Map<String, long[]> counts = new HashMap<>();
+        for (Map.Entry<String, Postings> word : index.entrySet()) {
+            Postings postings = word.getValue();
+            long[] wordCounts = new long[groups];
+            for (int i = 0; i < postings.size; i++) {
+                wordCounts[groupOfReview[postings.reviews[i]]] +=
+                        postings.counts[i];
+            }
+            counts.put(word.getKey(), wordCounts);
+        }
+        return counts;
+    }
+
+    /**
+     * Finds the reviews most similar to a text.
+     * Reviews that share no word of positive weight with the text are
+     * never returned.
+     *
+     * @param words the words of the text and their counts
+     * @param limit the largest number of reviews to return
+     * @return the review indices, from the most to the least similar, with
+     *         equally similar reviews in increasing order of index
+     */
+    int[] topK(Map<String, Long> words, int limit) {
+        List<Cursor> cursors = new ArrayList<>();
+        double queryNorm = 0;
+        for (Map.Entry<String, Long> word : words.entrySet()) {
+            Postings postings = index.get(word.getKey());
+            if (postings == null || postings.maxWeight == 0) {
+                continue;
+            }
+            double weight = tfWeight(word.getValue()) * postings.idf;
+            queryNorm += weight * weight;
+            cursors.add(new Cursor(postings, weight));
+        }
+        if (cursors.isEmpty() || limit <= 0) {
+            return new int[0];
+        }
+        for (Cursor cursor : cursors) {
+            cursor.weight /= Math.sqrt(queryNorm);
+        }
+        return maxScore(cursors, limit);
+    }
+
+    /**
+     * Scores the reviews of a set of postings in order of review index,
+     * skipping the postings that cannot put a review into the top k.
+     *
+     * @param cursors a cursor over the postings of each query word
+     * @param limit the number of reviews to find; is greater than 0
+     * @return the top reviews, most similar first
+     */
+    private static int[] maxScore(List<Cursor> cursors, int limit) {
+        cursors.sort((a, b) -> Double.compare(a.bound(), b.bound()));
+        int terms = cursors.size();
+        double[] boundSums = new double[terms];
+        double sum = 0;
+        for (int i = 0; i < terms; i++) {
+            sum += cursors.get(i).bound();
+            boundSums[i] = sum;
+        }
+
+        PriorityQueue<Hit> top = new PriorityQueue<>(Hit.WORST_FIRST);
+        double threshold = 0;
+        int firstEssential = 0;
+        while (true) {
+            int review = Integer.MAX_VALUE;
+            for (int i = firstEssential; i < terms; i++) {
+                review = Math.min(review, cursors.get(i).review());
+            }
+            if (review == Integer.MAX_VALUE) {
+                break;
+            }
+            double score = 0;
+            for (int i = firstEssential; i < terms; i++) {
+                Cursor cursor = cursors.get(i);
+                if (cursor.review() == review) {
+                    score += cursor.score();
+                    cursor.next();
+                }
+            }
+            for (int i = firstEssential - 1; i >= 0; i--) {
+                if (top.size() == limit && score + boundSums[i] <= threshold) {
+                    break;
+                }
+                Cursor cursor = cursors.get(i);
+                cursor.advanceTo(review);
+                if (cursor.review() == review) {
+                    score += cursor.score();
+                }
+            }
+            if (top.size() < limit || score > threshold) {
+                top.add(new Hit(review, score));
+                if (top.size() > limit) {
+                    top.remove();
+                }
+                if (top.size() == limit) {
+                    threshold = top.peek().score;
+                    while (firstEssential < terms
+                            && boundSums[firstEssential] <= threshold) {
+                        firstEssential++;
+                    }
+                }
+            }
+        }
+
+        int[] result = new int[top.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = top.remove().review;
+        }
+        return result;
+    }
+
+    private static double tfWeight(long count) {
+        return 1 + Math.log(count);
+    }
+
+    /**
+     * The reviews a word occurs in, in increasing order, with their counts
+     * and their weights.
+     */
+    private static final class Postings {
+
+        private final int[] reviews;
+        private final int[] counts;
+        private final float[] weights;
+        private final int size;
+        private double idf;
+        private float maxWeight;
+
+        Postings(NGramIndex.WordPostings postings) {
+            this.reviews = postings.reviews();
+            this.counts = postings.counts();
+            this.size = reviews.length;
+            this.weights = new float[size];
+        }
+
+    }
+
+    /**
+     * A position in the postings of one query word.
+     */
+    private static final class Cursor {
+
+        private final Postings postings;
+        private double weight;
+        private int position = 0;
+
+        Cursor(Postings postings, double weight) {
+            this.postings = postings;
+            this.weight = weight;
+        }
+
+        double bound() {
+            return weight * postings.maxWeight;
+        }
+
+        int review() {
+            return position < postings.size ? postings.reviews[position]
+                    : Integer.MAX_VALUE;
+        }
+
+        double score() {
+            return weight * postings.weights[position];
+        }
+
+        void next() {
+            position++;
+        }
+
+        /**
+         * Moves to the first posting at or after a review, galloping and
+         * then searching between the last two probes.
+         *
+         * @param review the review index to move to
+         */
+        void advanceTo(int review) {
+            if (position >= postings.size) {
+                return;
+            }
+            int step = 1;
+            int low = position;
+            while (low + step < postings.size
+                    && postings.reviews[low + step] < review) {
+                low += step;
+                step *= 2;
+            }
+            int found = Arrays.binarySearch(postings.reviews, low,
+                    Math.min(low + step + 1, postings.size), review);
+            position = Math.max(position, found < 0 ? -found - 1 : found);
+        }
+
+    }
+
+    /**
+     * A review and its score.
+     */
+    private record Hit(int review, double score) {
+
+        /**
+         * Orders hits from the least to the most similar, with later reviews
+         * first among equal scores.
+         */
+        static final Comparator<Hit> WORST_FIRST = (a, b) -> {
+            int byScore = Double.compare(a.score, b.score);
+            return byScore != 0 ? byScore : Integer.compare(b.review, a.review);
+        };
+
+    }
+
+}
@@ -11,6 +11,7 @@ public class SearchTerm implements Comparable<SearchTerm> {
 
     private final String query;
     private final long weight;
+    private final String sortKey;
 
     /**
      * Initializes a term with the given query string and weight.
@@ -22,6 +23,7 @@ public class SearchTerm implements Comparable<SearchTerm> {
     public SearchTerm(String query, long weight) {
         this.query  = query;
         this.weight = weight;
+        this.sortKey = toSortKey(query);
     }
 
     /**
@@ -30,24 +32,49 @@ public class SearchTerm implements Comparable<SearchTerm> {
      * @return a comparator that compares two search terms using their weight
      */
     public static Comparator<SearchTerm> byWeightOrder() {
-        return (o1, o2) -> {
-            long temp = o1.weight - o2.weight;
-            return temp < 0 ? 1 : (temp > 0 ? -1 : 0);
-        };
+        return (o1, o2) -> Long.compare(o2.weight, o1.weight);
     }
 
     /**
      * Obtain a comparator for lexicographic ordering.
+     * Queries are compared ignoring case and any character that is not an
+     * ASCII letter or a space, using keys computed when the terms are
+     * created, so comparisons do not allocate.
      *
      * @return a comparator that compares two search terms lexicographically
      */
     public static Comparator<SearchTerm> byPrefixOrder() {
-        return (o1, o2) -> {
-            String term1 = o1.query.replaceAll("[^A-Za-z ]+", "").toLowerCase();
-            String term2 = o2.query.replaceAll("[^A-Za-z ]+", "").toLowerCase();
-            int x = term1.compareTo(term2);
-            return Integer.compare(x, 0);
-        };
+        return (o1, o2) -> Integer.compare(o1.sortKey.compareTo(o2.sortKey), 0);
+    }
+
+    /**
+     * Computes the key that a query is compared by in byPrefixOrder: the
+     * query with every character other than ASCII letters and spaces
+     * removed, in lower case.
+     *
+     * @param query the query of a search term
+     * @return the sort key of query, which is query itself if nothing in it
+     *         needs to change
+     */
+    private static String toSortKey(String query) {
+        StringBuilder key = null;
+        for (int i = 0; i < query.length(); i++) {
+            char c = query.charAt(i);
+            boolean keep = c == ' ' || (c >= 'a' && c <= 'z');
+            if (keep && key == null) {
+                continue;
+            }
+            if (key == null) {
+                key = new StringBuilder(query.length());
+                key.append(query, 0, i);
+            }
+            if (keep) {
+                key.append(c);
+            } else if (c >= 'A' && c <= 'Z') {
+                key.append((char) (c - 'A' + 'a'));
+            }
+        }
+        return key == null ? query : key.toString();
     }
 
     /**
@@ -69,6 +96,15 @@ public class SearchTerm implements Comparable<SearchTerm> {
         return query;
     }
 
+    /**
+     * Returns the weight of the term.
+     *
+     * @return the weight of the term.
+     */
+    public long returnWeight() {
+        return weight;
+    }
+
     /**
      * Compares the two terms in lexicographic order by query.
      */
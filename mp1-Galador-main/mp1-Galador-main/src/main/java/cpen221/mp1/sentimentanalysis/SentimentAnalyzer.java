@@ -1,13 +1,15 @@
 package cpen221.mp1.sentimentanalysis;
 
+import cpen221.mp1.ngrams.Tokenizer;
 import cpen221.mp1.ratemyprofessor.DataAnalyzer;
-import cpen221.mp1.ratemyprofessor.Review;
 
 import java.io.FileNotFoundException;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Computes Sentiment Analyzer.
@@ -16,108 +18,117 @@ import java.util.Set;
  */
 public class SentimentAnalyzer {
 
-    private Set<String> reviewText;
-    private final Map<String, Float> probability;
-    private final DataAnalyzer data;
-    private final HashMap<Float, Float[]> ratings;
+    private final SentimentModel model;
+    private volatile Set<String> lastWords = Set.of();
 
     /**
      * Initializes a sentiment analyzer object with a given filename.
+     * The word counts of every rating are computed once here, so each
+     * prediction only looks up the words of its query. The counts are not
+     * changed afterwards, so one analyzer can be shared between threads.
      *
      * @param filename name of the file to be analyzed;
      *                 file exists and is not empty
      */
     public SentimentAnalyzer(String filename) throws FileNotFoundException {
-        this.ratings = new HashMap<>();
-        float totalRatings = 0.0f;
+        this(filename, false);
+    }
+
+    /**
+     * Initializes a sentiment analyzer object with a given filename,
+     * optionally training without the reviews that nearly duplicate an
+     * earlier review, so repeated reviews do not count more than once.
+     *
+     * @param filename name of the file to be analyzed;
+     *                 file exists and is not empty
+     * @param removeNearDuplicates true to leave out near-duplicate reviews,
+     *                             as DataAnalyzer does
+     */
+    public SentimentAnalyzer(String filename, boolean removeNearDuplicates)
+            throws FileNotFoundException {
+        DataAnalyzer data;
         try {
-            this.data = new DataAnalyzer(filename);
+            data = new DataAnalyzer(filename, removeNearDuplicates);
         } catch (FileNotFoundException e) {
             throw new FileNotFoundException();
         }
+        this.model = new SentimentModel(data);
+    }
 
-        Map<String, Long> master = new HashMap<>();
-        float total = 0f;
-        this.probability = new HashMap<>();
-        for (Review reviews: this.data.getReviewList()) {
-            for (String s : reviews.getReview().
-                    getAllNGrams().get(0).keySet()) {
-                if (master.containsKey(s)) {
-                    master.replace(s, master.get(s) + 1);
-                } else {
-                    master.put(s, 0L);
-                }
-                total += 1f;
-            }
-            if (ratings.containsKey(reviews.getScore())) {
-                ratings.get(reviews.getScore())[0] += 1;
-            } else {
-                ratings.put(reviews.getScore(), new Float[2]);
-                ratings.get(reviews.getScore())[0] = 1.0f;
-            }
-            totalRatings++;
-
-        }
+    /**
+     * Initializes a sentiment analyzer object with an already trained model.
+     *
+     * @param model the word counts to predict ratings with; is not null
+     */
+    private SentimentAnalyzer(SentimentModel model) {
+        this.model = model;
+    }
 
-        for (Float key : ratings.keySet()) {
-            float p = ratings.get(key)[0] / totalRatings;
-            ratings.get(key)[1] = p;
-        }
+    /**
+     * Reads a sentiment analyzer from a snapshot file written by save,
+     * without reading or tokenizing any reviews.
+     *
+     * @param snapshotFileName the location of the snapshot file
+     * @return a sentiment analyzer that predicts the same ratings as the
+     *         one that was saved
+     * @throws IOException if the file cannot be read or is not a sentiment
+     *                     analyzer snapshot
+     */
+    public static SentimentAnalyzer load(String snapshotFileName)
+            throws IOException {
+        return new SentimentAnalyzer(new SentimentModel(snapshotFileName));
+    }
 
-        for (String y: master.keySet()) {
-            this.probability.put(y, (master.get(y) / total));
-        }
+    /**
+     * Writes the trained word counts to a binary snapshot file, which can be
+     * read back with load.
+     *
+     * @param snapshotFileName the location of the file to be written
+     * @throws IOException if the file cannot be written
+     */
+    public void save(String snapshotFileName) throws IOException {
+        model.save(snapshotFileName);
+    }
 
+    /**
+     * Given a review text and a rating, get the probability of the review
+     * text occurring at the specified rating.
+     *
+     * @param text A string representing the review whose bag of words is
+     *             scored; is not null
+     * @param rating A floating point value that represents the rating at which
+     *               we want the probability of the bag of words occurring
+     * @return The probability of the bag of words occurring at the
+     *         specified rating, as a floating point value
+     */
+    public float bagRating(String text, float rating) {
+        return model.bagProbability(rating, toWords(text));
     }
 
     /**
-     * Given the rating, get the probability of the review text occurring at the
-     * specified rating.
+     * Given the rating, get the probability of the review text occurring at
+     * the specified rating. The review text is the text most recently
+     * passed to getPredictedRating on this analyzer, by any thread, so the
+     * result is only meaningful when a single thread uses the analyzer.
      *
      * @param rating A floating point value that represents the rating at which
      *               we want the probability of the bag of words occurring
      * @return The probability of the bag of words occurring at the
      *         specified rating, as a floating point value
+     * @deprecated Replaced by {@link #bagRating(String, float)}, which is
+     *             given the text to score.
      */
+    @Deprecated
     public float bagRating(float rating) {
-        Map<String, Long> myReviewText = new HashMap<>();
-        float occurrences = 1.0f;
-        Long totalWords = 0L;
-
-        for (Review reviews : data.getReviewList()) {
-            if (reviews.getScore() == rating) {
-                for (String key
-                        : reviews.getReview().getAllNGrams().get(0).keySet()) {
-                    totalWords +=
-                            reviews.getReview().getAllNGrams().get(0).get(key);
-                    if (this.reviewText.contains(key)) {
-                        if (myReviewText.containsKey(key)) {
-                            myReviewText.replace(key, myReviewText.get(key)
-                                    + reviews.getReview().
-                                    getAllNGrams().get(0).get(key));
-                        } else {
-                            myReviewText.put(key, reviews.getReview().
-                                    getAllNGrams().get(0).get(key));
-                        }
-                    }
-                }
-            }
-        }
-
-        for (String review : myReviewText.keySet()) {
-            myReviewText.replace(review, myReviewText.get(review) + 1L);
-        }
-
-        for (Long x : myReviewText.values()) {
-            occurrences *= (float) x;
-        }
-        return (float) ((double) occurrences
-                /  Math.pow((double) totalWords + 1d, this.reviewText.size()));
+        return model.bagProbability(rating, lastWords);
     }
 
     /**
      * Given the text of a review, returns the rating predicted by the simple
      * Bayesian approach based on the data from the given file of reviews.
+     * Ratings are compared by log-probability, so long reviews do not
+     * underflow to zero, and words that never occur in the data are
+     * smoothed instead of failing.
      *
      * @param text A string representing a review whose score will be predicted;
      *             is not empty
@@ -125,19 +136,33 @@ public class SentimentAnalyzer {
      *         given review
      */
     public float getPredictedRating(String text) {
-        Map<Float, Float> ratingBag = new HashMap<>();
-        this.reviewText = Set.of(text.split(" "));
-        float pWord = 1f;
-        for (String word : this.reviewText) {
-            pWord = pWord * this.probability.get(word);
-        }
-        for (float i = 1.0f; i <= 5; i += 0.5f) {
-            float pBagRating = this.bagRating(i);
-            float pRating = this.ratings.get(i)[1];
-            ratingBag.put((pBagRating * pRating) / pWord, i);
-        }
-        return ratingBag.get(Collections.max(ratingBag.keySet()));
+        Set<String> words = toWords(text);
+        this.lastWords = words;
+        return model.predict(words);
     }
 
-}
+    /**
+     * Predicts the ratings of many reviews, scoring them in parallel.
+     *
+     * @param texts the reviews whose scores will be predicted;
+     *              is not null and no review is empty
+     * @return the predicted scores, in the same order as texts
+     */
+    public List<Float> predictAll(List<String> texts) {
+        return texts.parallelStream()
+                .map(text -> model.predict(toWords(text)))
+                .collect(Collectors.toList());
+    }
 
+    /**
+     * Splits the text of a review into its distinct words, in the same way
+     * as the reviews the model was trained on.
+     *
+     * @param text the text of a review
+     * @return the set of words in text
+     */
+    private static Set<String> toWords(String text) {
+        return new HashSet<>(Arrays.asList(Tokenizer.standard().tokenize(text)));
+    }
+
+}
@@ -0,0 +1,192 @@
+package cpen221.mp1.sentimentanalysis;
+
+import cpen221.mp1.datawrapper.Snapshot;
+import cpen221.mp1.ratemyprofessor.DataAnalyzer;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * The word counts of a set of reviews, grouped by rating, used to score
+ * a bag of words with a naive Bayesian approach.
+ * A model is never changed after it is built, so it can be shared by
+ * any number of threads.
+ *
+ * @author TangMartin, badudum
+ */
+final class SentimentModel {
+
+    private static final int SNAPSHOT_MAGIC = 0x53454E54;
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private final float[] ratings;
+    private final long[] reviewCounts;
+    private final long[] wordTotals;
+    private final long totalReviews;
+    private final Map<String, long[]> wordCounts;
+
+    /**
+     * Counts the words of every review in a data set by rating.
+     *
+     * @param data the reviews to train on; is not null and not empty
+     */
+    SentimentModel(DataAnalyzer data) {
+        TreeSet<Float> distinct = new TreeSet<>();
+        for (int i = 0; i < data.getReviewCount(); i++) {
+            distinct.add(data.getScore(i));
+        }
+        this.ratings = new float[distinct.size()];
+        int r = 0;
+        for (float rating : distinct) {
+            ratings[r++] = rating;
+        }
+        this.reviewCounts = new long[ratings.length];
+        this.wordTotals = new long[ratings.length];
+        this.totalReviews = data.getReviewCount();
+
+        for (int i = 0; i < data.getReviewCount(); i++) {
+            reviewCounts[Arrays.binarySearch(ratings, data.getScore(i))]++;
+        }
+        this.wordCounts = data.getWordCountsByScore(ratings);
+        for (long[] counts : wordCounts.values()) {
+            for (int rating = 0; rating < ratings.length; rating++) {
+                wordTotals[rating] += counts[rating];
+            }
+        }
+    }
+
+    /**
+     * Reads a model from a snapshot file written by save.
+     *
+     * @param fileName the location of the file to be read
+     * @throws IOException if the file cannot be read or is not a sentiment
+     *                     model snapshot
+     */
+    SentimentModel(String fileName) throws IOException {
+        ByteBuffer in = Snapshot.open(fileName, SNAPSHOT_MAGIC,
+                SNAPSHOT_VERSION);
+        try {
+            int ratingCount = Snapshot.readCount(in,
+                    Float.BYTES + 2 * Long.BYTES);
+            if (ratingCount == 0) {
+                throw new IOException(fileName + " is corrupt");
+            }
+            this.ratings = new float[ratingCount];
+            this.reviewCounts = new long[ratingCount];
+            this.wordTotals = new long[ratingCount];
+            for (int r = 0; r < ratingCount; r++) {
+                ratings[r] = in.getFloat();
+                reviewCounts[r] = in.getLong();
+                wordTotals[r] = in.getLong();
+                if (r > 0 && !(ratings[r] > ratings[r - 1])) {
+                    throw new IOException(fileName + " is corrupt");
+                }
+            }
+            this.totalReviews = in.getLong();
+            int vocabularySize = Snapshot.readCount(in,
+                    Integer.BYTES + (long) ratingCount * Long.BYTES);
+            this.wordCounts = new HashMap<>(vocabularySize * 2);
+            for (int i = 0; i < vocabularySize; i++) {
+                String word = Snapshot.readString(in);
+                long[] counts = new long[ratingCount];
+                in.asLongBuffer().get(counts);
+                in.position(in.position() + ratingCount * Long.BYTES);
+                wordCounts.put(word, counts);
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IOException(fileName + " is truncated", e);
+        }
+    }
+
+    /**
+     * Writes the model to a binary snapshot file.
+     *
+     * @param fileName the location of the file to be written
+     * @throws IOException if the file cannot be written
+     */
+    void save(String fileName) throws IOException {
+        try (DataOutputStream out = Snapshot.create(fileName, SNAPSHOT_MAGIC,
+                SNAPSHOT_VERSION)) {
+            out.writeInt(ratings.length);
+            for (int r = 0; r < ratings.length; r++) {
+                out.writeFloat(ratings[r]);
+                out.writeLong(reviewCounts[r]);
+                out.writeLong(wordTotals[r]);
+            }
+            out.writeLong(totalReviews);
+            out.writeInt(wordCounts.size());
+            for (Map.Entry<String, long[]> word : wordCounts.entrySet()) {
+                Snapshot.writeString(out, word.getKey());
+                for (long count : word.getValue()) {
+                    out.writeLong(count);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the rating whose reviews make a bag of words most likely,
+     * scoring each rating by the sum of the log-probabilities of the
+     * rating and of every word at that rating. Ties go to the higher rating.
+     *
+     * @param words the distinct words to score; is not null
+     * @return the most likely rating
+     */
+    float predict(Collection<String> words) {
+        float best = ratings[ratings.length - 1];
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int r = 0; r < ratings.length; r++) {
+            double score = Math.log((double) reviewCounts[r] / totalReviews)
+                    + logBagProbability(r, words);
+            if (score >= bestScore) {
+                bestScore = score;
+                best = ratings[r];
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the probability of a bag of words occurring at a rating, with
+     * every word's count at that rating incremented by one.
+     *
+     * @param rating the rating to score at
+     * @param words the distinct words to score; is not null
+     * @return the probability of the words at the rating, or 1 if there are
+     *         no reviews with that rating
+     */
+    float bagProbability(float rating, Collection<String> words) {
+        int r = Arrays.binarySearch(ratings, rating);
+        if (r < 0) {
+            return 1.0f;
+        }
+        float occurrences = 1.0f;
+        for (String word : words) {
+            occurrences *= (float) (count(word, r) + 1L);
+        }
+        return (float) ((double) occurrences
+                / Math.pow((double) wordTotals[r] + 1d, words.size()));
+    }
+
+    private double logBagProbability(int r, Collection<String> words) {
+        double logTotal = Math.log((double) wordTotals[r] + 1d);
+        double sum = 0;
+        for (String word : words) {
+            sum += Math.log((double) count(word, r) + 1d) - logTotal;
+        }
+        return sum;
+    }
+
+    private long count(String word, int r) {
+        long[] counts = wordCounts.get(word);
+        return counts == null ? 0L : counts[r];
+    }
+
+}
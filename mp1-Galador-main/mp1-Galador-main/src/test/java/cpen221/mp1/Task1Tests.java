@@ -1,12 +1,22 @@
 package cpen221.mp1;
 
+import cpen221.mp1.ngrams.ApproximateNGrams;
 import cpen221.mp1.ngrams.NGrams;
+import cpen221.mp1.ngrams.Tokenizer;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class Task1Tests {
 
@@ -72,4 +82,170 @@ public class Task1Tests {
         assertEquals(expectedCount, ng.getTotalNGramCount(30));
     }
 
+    @Test
+    public void boundedGramCount() {
+        String text1 = "great class";
+        String text2 = "good textbook written by him";
+
+        List<Map<String, Long>> expectedNGrams = List.of(
+                Map.of("great", 1L, "class", 1L, "good", 1L, "textbook", 1L, "written", 1L, "by", 1L, "him", 1L),
+                Map.of("great class", 1L, "good textbook", 1L, "textbook written", 1L, "written by", 1L, "by him", 1L),
+                Map.of(),
+                Map.of(),
+                Map.of()
+        );
+
+        NGrams ng = new NGrams(new String[]{text1, text2}, 2);
+        assertEquals(expectedNGrams, ng.getAllNGrams());
+        assertEquals(12, ng.getTotalNGramCount(5));
+    }
+
+    @Test
+    public void acceptAndMergeMatchConstructor() {
+        String text1 = "the blue cow jumped over the blue cow moon!";
+        String text2 = "The Blue Period of Picasso is the period between 1900 and 1904, when he painted essentially monochromatic paintings in shades of blue and blue-green, only occasionally warmed by other colors.";
+
+        NGrams expected = new NGrams(new String[]{text1, text2, text1});
+        NGrams first = new NGrams();
+        first.accept(text1);
+        NGrams second = new NGrams();
+        second.accept(text2);
+        second.accept(text1);
+        first.merge(second);
+
+        assertEquals(expected.getAllNGrams(), first.getAllNGrams());
+        assertEquals(expected.getTotalNGramCount(999), first.getTotalNGramCount(999));
+    }
+
+    @Test
+    public void acceptFileMatchesConstructor() throws IOException {
+        String[] lines = Files.readAllLines(Paths.get("data/reviews2.txt")).toArray(new String[0]);
+        NGrams expected = new NGrams(lines, 3);
+        NGrams ng = new NGrams(3);
+        ng.acceptFile("data/reviews2.txt");
+
+        assertEquals(expected.getAllNGrams(), ng.getAllNGrams());
+    }
+
+    @Test
+    public void parallelMatchesSequential() throws IOException {
+        String[] lines = Files.readAllLines(Paths.get("data/ratemyprofessor_data.txt")).toArray(new String[0]);
+        NGrams expected = new NGrams(lines, 3);
+        NGrams ng = new NGrams(lines, 3, 4);
+
+        assertEquals(expected.getAllNGrams(), ng.getAllNGrams());
+        assertEquals(expected.getTotalNGramCount(3), ng.getTotalNGramCount(3));
+    }
+
+    @Test
+    public void snapshotRoundTrip() throws IOException {
+        String[] lines = Files.readAllLines(Paths.get("data/reviews2.txt")).toArray(new String[0]);
+        NGrams expected = new NGrams(lines, 4);
+        Path snapshot = Files.createTempFile("ngrams", ".bin");
+        try {
+            expected.save(snapshot.toString());
+            NGrams ng = NGrams.load(snapshot.toString());
+            assertEquals(expected.getAllNGrams(), ng.getAllNGrams());
+            assertEquals(expected.getTotalNGramCount(4), ng.getTotalNGramCount(4));
+        } finally {
+            Files.delete(snapshot);
+        }
+    }
+
+    @Test
+    public void corruptSnapshotLength() throws IOException {
+        Path snapshot = Files.createTempFile("ngrams", ".bin");
+        try {
+            new NGrams(new String[] {"the cat sat"}, 2).save(snapshot.toString());
+            byte[] bytes = Files.readAllBytes(snapshot);
+            // the length of the first word follows the header, gram count,
+            // longest sentence and vocabulary size
+            ByteBuffer.wrap(bytes).putInt(20, -1);
+            Files.write(snapshot, bytes);
+            assertThrows(IOException.class, () -> NGrams.load(snapshot.toString()));
+
+            ByteBuffer.wrap(bytes).putInt(20, Integer.MAX_VALUE);
+            Files.write(snapshot, bytes);
+            assertThrows(IOException.class, () -> NGrams.load(snapshot.toString()));
+        } finally {
+            Files.delete(snapshot);
+        }
+    }
+
+    @Test
+    public void corruptSnapshotRows() throws IOException {
+        Path snapshot = Files.createTempFile("ngrams", ".bin");
+        try {
+            new NGrams(new String[] {"the cat sat"}, 2).save(snapshot.toString());
+            byte[] bytes = Files.readAllBytes(snapshot);
+            // the file ends with the three unigram rows, the bigram count and
+            // the two bigram rows, each row holding a prefix, word and count
+            int unigrams = bytes.length - 2 * 16 - 4 - 3 * 16;
+            byte[] duplicated = bytes.clone();
+            System.arraycopy(bytes, unigrams, duplicated, unigrams + 16, 16);
+            Files.write(snapshot, duplicated);
+            assertThrows(IOException.class, () -> NGrams.load(snapshot.toString()));
+
+            ByteBuffer.wrap(bytes).putLong(bytes.length - 8, 0);
+            Files.write(snapshot, bytes);
+            assertThrows(IOException.class, () -> NGrams.load(snapshot.toString()));
+        } finally {
+            Files.delete(snapshot);
+        }
+    }
+
+    @Test
+    public void approximateCountsBoundExactCounts() throws IOException {
+        NGrams exact = new NGrams(2);
+        exact.acceptFile("data/ratemyprofessor_data.txt");
+        ApproximateNGrams approximate = new ApproximateNGrams(2, 0.001, 0.01, 100);
+        approximate.acceptFile("data/ratemyprofessor_data.txt");
+
+        List<Map<String, Long>> counts = exact.getAllNGrams();
+        for (int n = 1; n <= 2; n++) {
+            long bound = (long) (0.001 * approximate.getTotalCount(n));
+            for (Map.Entry<String, Long> gram : counts.get(n - 1).entrySet()) {
+                long estimate = approximate.getEstimatedCount(n, gram.getKey());
+                assertTrue(estimate >= gram.getValue());
+                assertTrue(estimate <= gram.getValue() + bound);
+            }
+        }
+
+        String mostFrequent = counts.get(0).entrySet().stream()
+                .max(Map.Entry.comparingByValue()).get().getKey();
+        Map<String, Long> top = approximate.getTopNGrams(1, 5);
+        assertEquals(5, top.size());
+        assertEquals(mostFrequent, top.keySet().iterator().next());
+        assertEquals(counts.get(0).get(mostFrequent), top.get(mostFrequent));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new ApproximateNGrams(0, 0.001, 0.01, 100));
+        assertThrows(IllegalArgumentException.class, () -> new ApproximateNGrams(
+                ApproximateNGrams.MAX_GRAM_COUNT + 1, 0.001, 0.01, 100));
+    }
+
+    @Test
+    public void standardTokenizer() {
+        assertArrayEquals(new String[] {"don't", "  ", "stop", "co-op", "3.5", "a", "3", "really"},
+                Tokenizer.standard().tokenize("Don't  STOP, co-op 3.5 a.3 (really)!"));
+        assertArrayEquals(new String[] {"na\u00efve", "caf\u00e9\u2014great"},
+                Tokenizer.standard().tokenize("Na\u00efve caf\u00e9\u2014great"));
+
+        NGrams ng = new NGrams(1, text -> text.split(","));
+        ng.accept("a,b,a");
+        assertEquals(Map.of("a", 2L, "b", 1L), ng.getAllNGrams().get(0));
+    }
+
+    @Test
+    public void predictNextWords() {
+        NGrams ng = new NGrams(new String[] {"the cat sat", "the cat ran",
+                "The cat sat.", "a dog sat", "the dog ran"}, 3);
+        assertEquals(List.of("sat", "ran", "the"), ng.predictNextWords("The cat", 3));
+        assertEquals(List.of("dog", "the"), ng.predictNextWords("I saw a", 2));
+        assertEquals(List.of("the", "cat"), ng.predictNextWords("", 2));
+
+        ng.accept("the cat ran");
+        assertEquals(List.of("ran", "sat"), ng.predictNextWords("the cat", 2));
+    }
+
 }
@@ -8,7 +8,12 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -18,12 +23,14 @@ public class Task2Tests {
     private static DataAnalyzer da1;
     private static DataAnalyzer da2;
     private static DataAnalyzer da3;
+    private static DataAnalyzer da4;
 
     @BeforeAll
     public static void setUpTests() throws FileNotFoundException {
         da1 = new DataAnalyzer("data/reviews1.txt");
         da2 = new DataAnalyzer("data/reviews2.txt");
         da3 = new DataAnalyzer("data/reviews3.txt");
+        da4 = new DataAnalyzer("data/reviews4.txt");
     }
 
     @Test
@@ -67,6 +74,91 @@ public class Task2Tests {
         );
         assertEquals(expected, da3.getHistogram(query));
     }
+
+    @Test
+    public void testLongQueries() {
+        Map<String, Long> expectedThree = Map.of(
+                "ML", 0L,
+                "WL", 0L,
+                "MM", 0L,
+                "WM", 0L,
+                "MH", 1L,
+                "WH", 0L
+        );
+        Map<String, Long> expectedFour = Map.of(
+                "ML", 0L,
+                "WL", 1L,
+                "MM", 0L,
+                "WM", 0L,
+                "MH", 0L,
+                "WH", 0L
+        );
+        assertEquals(expectedThree, da1.getHistogram("written by him"));
+        assertEquals(expectedFour, da1.getHistogram("she is not a"));
+        assertEquals(0L, (long) da1.getHistogram("she is not a teacher").get("WL"));
+    }
+
+    @Test
+    public void testHistogramsTogether() {
+        List<String> queries = List.of("written by him", "she is not a",
+                "she is not a teacher", "is not a", "she is not a", "nothing like this at all");
+        Map<String, Map<String, Long>> histograms = da1.getHistograms(queries);
+        assertEquals(5, histograms.size());
+        for (String query : queries) {
+            assertEquals(da1.getHistogram(query), histograms.get(query));
+        }
+        assertEquals(1L, (long) histograms.get("she is not a").get("WL"));
+    }
+
+    @Test
+    public void testSimilarReviews() {
+        Assertions.assertArrayEquals(new int[] {2}, da1.findSimilarReviews(0, 5));
+        Assertions.assertArrayEquals(new int[] {2},
+                da1.findSimilarReviews(0, Integer.MAX_VALUE));
+        Assertions.assertArrayEquals(new int[0], da1.findSimilarReviews(1, 5));
+        Assertions.assertArrayEquals(new int[] {1}, da1.findSimilarReviews("Textbook.", 5));
+        Assertions.assertArrayEquals(new int[] {2, 0},
+                da1.findSimilarReviews("a really good teacher", 2));
+        Assertions.assertArrayEquals(new int[] {2},
+                da1.findSimilarReviews("a really good teacher", 1));
+    }
+
+    @Test
+    public void testRemoveNearDuplicates() throws FileNotFoundException {
+        DataAnalyzer all = new DataAnalyzer("data/reviews5.txt");
+        DataAnalyzer deduped = new DataAnalyzer("data/reviews5.txt", true);
+        assertEquals(4, all.getReviewCount());
+        assertEquals(0, all.getRemovedDuplicateCount());
+        assertEquals(2, deduped.getReviewCount());
+        assertEquals(2, deduped.getRemovedDuplicateCount());
+        assertEquals(all.getReview(0), deduped.getReview(0));
+        assertEquals(all.getReview(2), deduped.getReview(1));
+        assertEquals(3L, (long) all.getHistogram("great teacher").get("WH"));
+        assertEquals(1L, (long) deduped.getHistogram("great teacher").get("WH"));
+    }
+
+    @Test
+    public void testQuotedReviews() {
+        assertEquals(3, da4.getReviewCount());
+        assertEquals(new Review(1.0f, 'W', "she is not, in fact, a \"good\" teacher"), da4.getReview(0));
+        assertEquals(new Review(5.0f, 'M', "good textbook\nwritten by him"), da4.getReview(1));
+        assertEquals(new Review(4.5f, 'W', "good teacher she really cares"), da4.getReview(2));
+        assertEquals(1L, (long) da4.getHistogram("good").get("WL"));
+        assertEquals(1L, (long) da4.getHistogram("good").get("WH"));
+    }
+
+    @Test
+    public void testNonAsciiGender() throws IOException {
+        Path data = Files.createTempFile("reviews", ".txt");
+        try {
+            Files.writeString(data, "Rating,Professor Gender,Comment Text\n4.0,\u0174,great teacher\n",
+                    StandardCharsets.UTF_8);
+            assertEquals('\u0174', new DataAnalyzer(data.toString()).getReview(0).getGender());
+        } finally {
+            Files.delete(data);
+        }
+    }
+
     @Test
     public void testReturnReviews() {
         String s1 = "she is not a good teacher";
@@ -82,6 +174,8 @@ public class Task2Tests {
         assertEquals(s1NGrams.getAllNGrams(), da1.returnReviewGram(0).getAllNGrams());
         Assertions.assertArrayEquals(sampleReviewList.toArray(new Review[0]),
                 da1.getReviewList().toArray(new Review[0]));
+        assertEquals(3, da1.getReviewCount());
+        assertEquals(sampleReviewList.get(1), da1.getReview(1));
     }
 
     @Test
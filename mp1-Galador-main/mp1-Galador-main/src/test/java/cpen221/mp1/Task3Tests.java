@@ -1,6 +1,7 @@
 package cpen221.mp1;
 
 import cpen221.mp1.autocompletion.AutoCompletor;
+import cpen221.mp1.autocompletion.ShardedAutoCompletor;
 import cpen221.mp1.ratemyprofessor.DataAnalyzer;
 import cpen221.mp1.searchterm.SearchTerm;
 import org.junit.jupiter.api.Assertions;
@@ -8,18 +9,21 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import java.io.FileNotFoundException;
+import java.util.Arrays;
 
 
 public class Task3Tests {
 
     private static final String citiesData = "data/cities.txt";
     private static AutoCompletor ac;
+    private static ShardedAutoCompletor sharded;
     private static AutoCompletor acLine1;
 
     @BeforeAll
     public static void setupTests() throws FileNotFoundException {
         cpen221.mp1.cities.DataAnalyzer cityAnalyzer = new cpen221.mp1.cities.DataAnalyzer(citiesData);
         ac = new AutoCompletor(cityAnalyzer.getSearchTerms());
+        sharded = cityAnalyzer.getAutoCompletor();
         DataAnalyzer reviewAnalyzer = new DataAnalyzer("data/ratemyprofessor_data2.txt");
         acLine1 = new AutoCompletor(reviewAnalyzer.returnReviewGram(0).getAllNGrams());
     }
@@ -75,4 +79,130 @@ public class Task3Tests {
         Assertions.assertEquals(AssertedValue2, acLine1.numberOfMatches("s"));
     }
 
+    @Test
+    public void testPrefixRanges() {
+        Assertions.assertEquals(0, ac.numberOfMatches("Qqqq"));
+        Assertions.assertArrayEquals(new SearchTerm[0], ac.topKMatches("Qqqq", 5));
+        Assertions.assertEquals(ac.allMatches("").length, ac.numberOfMatches(""));
+        Assertions.assertArrayEquals(ac.topKMatches("Saint", 7),
+                Arrays.copyOf(ac.allMatches("Saint"), 7));
+    }
+
+    @Test
+    public void testPrefixOrder() {
+        SearchTerm plain = new SearchTerm("saint john", 1);
+        SearchTerm mixed = new SearchTerm("Saint-John, 2", 5);
+        SearchTerm later = new SearchTerm("Saint Petersburg", 3);
+
+        Assertions.assertEquals(0, SearchTerm.byPrefixOrder().compare(plain, new SearchTerm("Saint John!", 2)));
+        Assertions.assertEquals(1, SearchTerm.byPrefixOrder().compare(mixed, plain));
+        Assertions.assertEquals(-1, SearchTerm.byPrefixOrder().compare(plain, later));
+        Assertions.assertEquals(-1, later.compareTo(mixed));
+        Assertions.assertEquals(-1, SearchTerm.byWeightOrder().compare(mixed, later));
+    }
+
+    @Test
+    public void testLiveUpdates() {
+        SearchTerm apple = new SearchTerm("apple", 5);
+        SearchTerm apricot = new SearchTerm("apricot", 3);
+        SearchTerm banana = new SearchTerm("banana", 4);
+        AutoCompletor live = new AutoCompletor(new SearchTerm[] {apple, apricot, banana});
+
+        live.incrementWeight("apricot", 4);
+        live.incrementWeight("avocado", 6);
+        Assertions.assertArrayEquals(new SearchTerm[] {apple, apricot}, live.topKMatches("ap"));
+        live.refresh();
+        Assertions.assertArrayEquals(new SearchTerm[] {new SearchTerm("apricot", 7),
+                new SearchTerm("avocado", 6), apple}, live.topKMatches("a"));
+        Assertions.assertEquals(4, live.numberOfMatches(""));
+
+        live.decayWeights(0.25);
+        Assertions.assertArrayEquals(new SearchTerm[] {new SearchTerm("apple", 1),
+                new SearchTerm("apricot", 1), new SearchTerm("avocado", 1),
+                new SearchTerm("banana", 1)}, live.allMatches(""));
+        live.incrementWeight("apple", -1);
+        live.refresh();
+        Assertions.assertEquals(0, live.numberOfMatches("app"));
+        Assertions.assertEquals(2, live.numberOfMatches("a"));
+    }
+
+    @Test
+    public void testFuzzyMatches() {
+        SearchTerm vancouver = new SearchTerm("Vancouver", 600);
+        SearchTerm vanderhoof = new SearchTerm("Vanderhoof", 4);
+        SearchTerm victoria = new SearchTerm("Victoria", 80);
+        AutoCompletor cities = new AutoCompletor(new SearchTerm[] {victoria, vanderhoof, vancouver});
+
+        Assertions.assertArrayEquals(new SearchTerm[0], cities.fuzzyTopKMatches("Vancuv", 0, 5));
+        Assertions.assertArrayEquals(new SearchTerm[] {vancouver}, cities.fuzzyTopKMatches("Vancuv", 1, 5));
+        Assertions.assertArrayEquals(new SearchTerm[] {vancouver, vanderhoof}, cities.fuzzyTopKMatches("Vanc", 1, 5));
+        Assertions.assertArrayEquals(cities.topKMatches("Van", 5), cities.fuzzyTopKMatches("Van", 0, 5));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> cities.fuzzyTopKMatches("V", -1, 5));
+    }
+
+    @Test
+    public void testSession() {
+        AutoCompletor.Session session = ac.newSession();
+        for (String typed : new String[] {"S", "Sa", "Sai", "Saint", "Sa", "Sy", "", "Z", "Zz", "Zzzz"}) {
+            Assertions.assertArrayEquals(ac.topKMatches(typed, 5), session.topKMatches(typed, 5));
+        }
+        Assertions.assertArrayEquals(ac.topKMatches("Sa", 8), session.topKMatches("Sa", 8));
+    }
+
+    @Test
+    public void testCache() {
+        SearchTerm apple = new SearchTerm("apple", 5);
+        SearchTerm apricot = new SearchTerm("apricot", 3);
+        AutoCompletor cached = new AutoCompletor(new SearchTerm[] {apple, apricot});
+        cached.enableCache(2);
+
+        Assertions.assertArrayEquals(new SearchTerm[] {apple, apricot}, cached.topKMatches("ap", 2));
+        Assertions.assertArrayEquals(new SearchTerm[] {apple, apricot}, cached.topKMatches("ap", 2));
+        Assertions.assertEquals(1L, cached.getCacheHits());
+        Assertions.assertEquals(1L, cached.getCacheMisses());
+
+        cached.incrementWeight("apricot", 10);
+        cached.refresh();
+        Assertions.assertArrayEquals(new SearchTerm[] {new SearchTerm("apricot", 13), apple},
+                cached.topKMatches("ap", 2));
+        Assertions.assertEquals(2L, cached.getCacheMisses());
+
+        cached.topKMatches("a", 1);
+        cached.topKMatches("ap", 2);
+        cached.topKMatches("apr", 1);
+        cached.topKMatches("ap", 2);
+        Assertions.assertEquals(3L, cached.getCacheHits());
+        cached.topKMatches("a", 1);
+        Assertions.assertEquals(5L, cached.getCacheMisses());
+    }
+
+    @Test
+    public void testShardedCities() {
+        for (String prefix : new String[] {"", "S", "Saint Petersburg", "Qqqq"}) {
+            Assertions.assertArrayEquals(ac.topKMatches(prefix, 7), sharded.topKMatches(prefix, 7));
+            Assertions.assertEquals(ac.numberOfMatches(prefix), sharded.numberOfMatches(prefix));
+        }
+        Assertions.assertArrayEquals(ac.allMatches("Van"), sharded.allMatches("Van"));
+        Assertions.assertArrayEquals(ac.topKMatches("Van", 3), sharded.getShard('V').topKMatches("Van", 3));
+    }
+
+    @Test
+    public void testShardedTiesKeepInputOrder() {
+        SearchTerm[] terms = {new SearchTerm("new york", 10), new SearchTerm("New York", 10),
+                new SearchTerm("Boston", 20), new SearchTerm("NEW-YORK", 10), new SearchTerm("boston", 20)};
+        AutoCompletor unsharded = new AutoCompletor(terms);
+        ShardedAutoCompletor shardedTerms = new ShardedAutoCompletor(terms);
+        Assertions.assertArrayEquals(unsharded.allMatches(""), shardedTerms.allMatches(""));
+        for (int limit = 1; limit <= terms.length; limit++) {
+            Assertions.assertArrayEquals(unsharded.topKMatches("", limit), shardedTerms.topKMatches("", limit));
+        }
+
+        shardedTerms.getShard('b').incrementWeight("boston", 0);
+        shardedTerms.getShard('b').refresh();
+        shardedTerms.getShard('B').incrementWeight("BOSTON", 20);
+        shardedTerms.getShard('B').refresh();
+        Assertions.assertArrayEquals(new SearchTerm[] {new SearchTerm("Boston", 20), new SearchTerm("boston", 20),
+                new SearchTerm("BOSTON", 20), new SearchTerm("new york", 10)}, shardedTerms.topKMatches("", 4));
+    }
+
 }
@@ -3,6 +3,11 @@ package cpen221.mp1;
 import cpen221.mp1.sentimentanalysis.SentimentAnalyzer;
 import org.junit.jupiter.api.Test;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class Task4Tests {
@@ -26,6 +31,68 @@ public class Task4Tests {
         }
     }
 
+    @Test
+    public void testRepeatedAndUnseenWords() {
+        try {
+            SentimentAnalyzer rmpSa = new SentimentAnalyzer("data/ratemyprofessor_data.txt");
+            assertEquals(1f, rmpSa.getPredictedRating("oh no no it was so so difficult"));
+            float rating = rmpSa.getPredictedRating("so difficult qwertyuiopasdf");
+            assertTrue(rating >= 1f && rating <= 5f);
+        } catch (FileNotFoundException fnf) {
+            fail("Data file is not in the right place!");
+        }
+    }
+
+    @Test
+    public void testPredictAll() {
+        try {
+            SentimentAnalyzer rmpSa = new SentimentAnalyzer("data/ratemyprofessor_data.txt");
+            List<String> texts = List.of("oh no it was so difficult", "soft voice sit in the front",
+                    "oh no it was so difficult");
+            assertEquals(List.of(1f, 2f, 1f), rmpSa.predictAll(texts));
+        } catch (FileNotFoundException fnf) {
+            fail("Data file is not in the right place!");
+        }
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testBagRatingUsesItsOwnText() throws IOException {
+        SentimentAnalyzer rmpSa = new SentimentAnalyzer("data/ratemyprofessor_data.txt");
+        float difficult = rmpSa.bagRating("oh no it was so difficult", 1f);
+        rmpSa.getPredictedRating("soft voice sit in the front");
+        assertEquals(difficult, rmpSa.bagRating("oh no it was so difficult", 1f));
+        assertNotEquals(difficult, rmpSa.bagRating("soft voice sit in the front", 1f));
+        assertEquals(rmpSa.bagRating("soft voice sit in the front", 1f), rmpSa.bagRating(1f));
+    }
+
+    @Test
+    public void testSnapshot() throws IOException {
+        SentimentAnalyzer rmpSa = new SentimentAnalyzer("data/ratemyprofessor_data.txt");
+        Path snapshot = Files.createTempFile("sentiment", ".bin");
+        try {
+            rmpSa.save(snapshot.toString());
+            SentimentAnalyzer loaded = SentimentAnalyzer.load(snapshot.toString());
+            assertEquals(1f, loaded.getPredictedRating("oh no it was so difficult"));
+            assertEquals(2f, loaded.getPredictedRating("soft voice sit in the front"));
+            assertThrows(IOException.class, () -> SentimentAnalyzer.load("data/reviews1.txt"));
+
+            // the ratings follow the header and the rating count, each with
+            // its review count and word total
+            byte[] bytes = Files.readAllBytes(snapshot);
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            buffer.putFloat(32, buffer.getFloat(12));
+            Files.write(snapshot, bytes);
+            assertThrows(IOException.class, () -> SentimentAnalyzer.load(snapshot.toString()));
+
+            buffer.putInt(8, 0);
+            Files.write(snapshot, bytes);
+            assertThrows(IOException.class, () -> SentimentAnalyzer.load(snapshot.toString()));
+        } finally {
+            Files.delete(snapshot);
+        }
+    }
+
     @Test
     public void testBadFile() {
         try {